@@ -0,0 +1,59 @@
+package com.project.back_end.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class AppointmentCursor {
+
+// 1. Purpose:
+//    - Opaque keyset cursor for paging through a patient's appointment history.
+//    - It points at the last row of the previous page by its (appointmentTime, id) pair, which is the same
+//      order the history queries sort by, so the next page only reads rows after the cursor instead of skipping
+//      an OFFSET's worth of rows (see AppointmentHistoryRepository for how MySQL executes it over the union).
+
+// 2. 'appointmentTime' and 'id' fields:
+//    - The sort key of the last row that was returned to the client.
+//    - The id breaks ties between appointments booked for the same time.
+    private final LocalDateTime appointmentTime;
+    private final Long id;
+
+    public AppointmentCursor(LocalDateTime appointmentTime, Long id) {
+        this.appointmentTime = appointmentTime;
+        this.id = id;
+    }
+
+// 3. encode / decode:
+//    - The cursor travels as a URL-safe base64 string of "<appointmentTime>|<id>".
+//    - decode throws IllegalArgumentException for anything that was not produced by encode.
+    public String encode() {
+        String raw = appointmentTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AppointmentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new AppointmentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static AppointmentCursor of(AppointmentDTO appointment) {
+        return new AppointmentCursor(appointment.getAppointmentTime(), appointment.getId());
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+public interface AppointmentParticipants {
+
+// 1. Purpose:
+//    - Spring Data projection with just the keys of an appointment: who it is for, with whom, when, and its status.
+//    - Used to denormalize patientId/doctorId onto prescriptions and to apply status changes to the doctor rollup
+//      without loading Appointment entities.
+
+    Long getId();
+
+    Long getPatientId();
+
+    Long getDoctorId();
+
+    LocalDateTime getAppointmentTime();
+
+    Integer getStatus();
+}
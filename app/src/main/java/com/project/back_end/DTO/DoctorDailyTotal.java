@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDate;
+
+public interface DoctorDailyTotal {
+
+// 1. Purpose:
+//    - Spring Data projection of appointments counted per (doctor, day, status) straight from the appointment tables.
+//    - DoctorRollupReconciler compares these against the doctor_daily_count rollup.
+
+    Long getDoctorId();
+
+    LocalDate getAppointmentDate();
+
+    Integer getStatus();
+
+    Long getAppointmentCount();
+}
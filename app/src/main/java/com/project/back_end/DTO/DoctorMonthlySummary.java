@@ -0,0 +1,67 @@
+package com.project.back_end.DTO;
+
+public class DoctorMonthlySummary {
+
+// 1. Purpose:
+//    - One row of the month-end per-doctor summary: appointments by status and prescriptions issued in the month.
+//    - Created with zero counts by a JPQL constructor expression over all doctors; each report worker then fills in
+//      the counts of its own doctors, so no row is ever written by two threads.
+
+    private final Long doctorId;
+    private final String doctorName;
+    private long scheduled;
+    private long completed;
+    private long cancelled;
+    private long prescriptions;
+
+    public DoctorMonthlySummary(Long doctorId, String doctorName) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+    }
+
+// 2. Getters and setters:
+//    - visits is every appointment booked with the doctor in the month, whatever its status.
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public long getVisits() {
+        return scheduled + completed + cancelled;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(long scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long getPrescriptions() {
+        return prescriptions;
+    }
+
+    public void setPrescriptions(long prescriptions) {
+        this.prescriptions = prescriptions;
+    }
+}
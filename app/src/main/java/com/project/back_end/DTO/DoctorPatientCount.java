@@ -0,0 +1,30 @@
+package com.project.back_end.DTO;
+
+public class DoctorPatientCount {
+
+// 1. Purpose:
+//    - One row of the "top doctors by patients seen" report: a doctor and the number of appointments they had in the period.
+//    - Built directly by a JPQL constructor expression over the doctor_daily_count rollup.
+
+    private final Long doctorId;
+    private final String doctorName;
+    private final Long patientsSeen;
+
+    public DoctorPatientCount(Long doctorId, String doctorName, Long patientsSeen) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.patientsSeen = patientsSeen;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public Long getPatientsSeen() {
+        return patientsSeen;
+    }
+}
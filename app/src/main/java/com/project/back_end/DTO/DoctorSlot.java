@@ -0,0 +1,12 @@
+package com.project.back_end.DTO;
+
+public interface DoctorSlot {
+
+// 1. Purpose:
+//    - Spring Data projection of one entry of a doctor's availableTimes (e.g. "09:00-10:00"),
+//      read with a single join instead of loading each doctor's collection separately.
+
+    Long getDoctorId();
+
+    String getSlot();
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.DTO;
+
+public interface DoctorStatusCount {
+
+// 1. Purpose:
+//    - Spring Data projection of appointments counted per (doctor, status) over a time range.
+
+    Long getDoctorId();
+
+    Integer getStatus();
+
+    Long getAppointmentCount();
+}
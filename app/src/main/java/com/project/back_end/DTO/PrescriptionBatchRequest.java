@@ -0,0 +1,36 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+public class PrescriptionBatchRequest {
+
+// 1. 'appointmentIds' field:
+//    - Type: private List<Long>
+//    - Description:
+//      - The appointments whose prescriptions should be returned, e.g. every row of a doctor's day view.
+//      - Capped at PrescriptionService.MAX_BATCH_SIZE ids per request.
+    private List<Long> appointmentIds;
+
+// 2. 'fields' field:
+//    - Type: private List<String>
+//    - Description:
+//      - Optional projection: only these prescription fields are loaded and returned.
+//      - When empty or missing, whole prescriptions are returned.
+    private List<String> fields;
+
+    public List<Long> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    public void setAppointmentIds(List<Long> appointmentIds) {
+        this.appointmentIds = appointmentIds;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+}
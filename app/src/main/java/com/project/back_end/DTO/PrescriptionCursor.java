@@ -0,0 +1,59 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Prescription;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class PrescriptionCursor {
+
+// 1. Purpose:
+//    - Opaque keyset cursor for paging through a patient's prescriptions, newest first.
+//    - It points at the last prescription of the previous page by its (issuedAt, id) pair, matching the
+//      (patientId, issuedAt desc, _id desc) index, so the next page is a single index range scan.
+
+// 2. 'issuedAt' and 'id' fields:
+//    - The sort key of the last prescription that was returned to the client.
+//    - The MongoDB id breaks ties between prescriptions issued at the same instant.
+    private final LocalDateTime issuedAt;
+    private final String id;
+
+    public PrescriptionCursor(LocalDateTime issuedAt, String id) {
+        this.issuedAt = issuedAt;
+        this.id = id;
+    }
+
+// 3. encode / decode:
+//    - The cursor travels as a URL-safe base64 string of "<issuedAt>|<id>".
+//    - decode throws IllegalArgumentException for anything that was not produced by encode.
+    public String encode() {
+        String raw = issuedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PrescriptionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PrescriptionCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static PrescriptionCursor of(Prescription prescription) {
+        return new PrescriptionCursor(prescription.getIssuedAt(), prescription.getId());
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
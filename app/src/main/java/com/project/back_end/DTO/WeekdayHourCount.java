@@ -0,0 +1,14 @@
+package com.project.back_end.DTO;
+
+public interface WeekdayHourCount {
+
+// 1. Purpose:
+//    - Spring Data projection of appointments counted per (day of week, hour of day) for the utilization heatmap.
+//    - dayOfWeek follows SQL's DAYOFWEEK: 1 = Sunday ... 7 = Saturday.
+
+    Integer getDayOfWeek();
+
+    Integer getHour();
+
+    Long getBooked();
+}
@@ -0,0 +1,74 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Prescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MongoIndexInitializer {
+
+// 1. Purpose:
+//    - Creates the MongoDB indexes the prescription queries rely on once the application has started.
+//    - ensureIndex is idempotent, so this is safe on every startup and on every instance.
+//    - Each index is created on its own, so one failure does not leave the others missing.
+//    - The unique index is what guarantees one prescription per appointment (the outbox relay relies on it), so when
+//      it cannot be created (Mongo not reachable, existing duplicate prescriptions) startup fails. Set
+//      `prescription.indexes.required=false` only where MongoDB is deliberately absent (tests).
+//    - The query indexes only cost speed when missing; their failures are logged.
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${prescription.indexes.required:true}")
+    private boolean required;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+// 2. ensureIndexes Method:
+//    - uniq_appointmentId: one prescription per appointment; keeps the outbox relay's upserts idempotent
+//      and serves findOneByAppointmentId and the batch `$in` lookup.
+//    - patientId_issuedAt: a patient's medication history newest first; _id is the tie-breaker of the keyset cursor.
+//    - doctorId_issuedAt: prescriptions per doctor and month for the month-end summary.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexOperations prescriptions = mongoTemplate.indexOps(Prescription.class);
+        try {
+            prescriptions.ensureIndex(new Index("appointmentId", Sort.Direction.ASC)
+                    .named("uniq_appointmentId")
+                    .unique());
+        } catch (RuntimeException e) {
+            if (required) {
+                throw new IllegalStateException("Could not create the unique prescription index uniq_appointmentId", e);
+            }
+            log.error("Could not create the unique prescription index uniq_appointmentId", e);
+        }
+        ensureQueryIndex(prescriptions, new Index()
+                .on("patientId", Sort.Direction.ASC)
+                .on("issuedAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("patientId_issuedAt"));
+        ensureQueryIndex(prescriptions, new Index()
+                .on("doctorId", Sort.Direction.ASC)
+                .on("issuedAt", Sort.Direction.ASC)
+                .named("doctorId_issuedAt"));
+    }
+
+    private void ensureQueryIndex(IndexOperations prescriptions, Index index) {
+        try {
+            prescriptions.ensureIndex(index);
+        } catch (RuntimeException e) {
+            log.error("Could not create prescription index {}", index.getIndexOptions().get("name"), e);
+        }
+    }
+}
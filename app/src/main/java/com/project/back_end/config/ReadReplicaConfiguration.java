@@ -0,0 +1,158 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+// 1. Purpose:
+//    - Sends @Transactional(readOnly = true) work (doctor search, patient reads, token validation, reports) to a
+//      read replica and everything else to the primary, when `datasource.replica.enabled=true`.
+//    - With the property off Spring Boot's single Hikari pool is used as before and none of these beans exist.
+
+// 2. Routing:
+//    - `readWriteDataSource` (the @Primary DataSource JPA and JdbcTemplate use) is a LazyConnectionDataSourceProxy
+//      over the primary pool with the replica as its read-only DataSource. The physical connection is only fetched
+//      at the first statement, after the transaction manager has marked the connection read-only, so the choice
+//      follows the transaction definition. A read-write transaction that joins a read-only one keeps the replica
+//      connection (Spring propagation rules). Spring Data's own read methods (findById, findAll, count) are
+//      read-only too, so when called outside a service transaction they read from the replica.
+//    - Reads that must see the caller's own recent writes go to the primary instead (ReplicaStickiness,
+//      `datasource.replica.stickiness` and `datasource.replica.stickiness-window-ms`).
+//    - Work outside transactions (auto-commit JdbcTemplate calls) and Hibernate's schema handling use the primary.
+
+// 3. Pools:
+//    - `primaryDataSource` is built from `spring.datasource.*` and `spring.datasource.hikari.*`; `replicaDataSource`
+//      from `datasource.replica.url`/`username`/`password` (credentials default to the primary's) and
+//      `datasource.replica.hikari.*`. Replica connections are opened read-only.
+//    - Both pools are ordinary DataSource beans, so Spring Boot publishes Hikari metrics and a health check for each,
+//      datasource-micrometer traces statements per pool, and in virtual-thread mode each pool gets its own
+//      ConnectionLimitingDataSource (the permit gauges follow the primary).
+//    - The routing DataSource must not be traced itself (`jdbc.excluded-datasource-bean-names`): the tracing proxy
+//      reads connection metadata as soon as a connection is borrowed, which would open the physical connection
+//      before the transaction is marked read-only.
+
+    @Value("${datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.stickiness:SESSION}")
+    private ReplicaStickiness.Mode stickinessMode;
+
+    @Value("${datasource.replica.stickiness-window-ms:5000}")
+    private long stickinessWindowMs;
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties primaryProperties, Environment environment) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        return primary;
+    }
+
+    @Bean
+    public DataSource replicaDataSource(DataSourceProperties primaryProperties, Environment environment) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        Binder.get(environment).bind("datasource.replica.hikari", Bindable.ofInstance(replica));
+        if (replica.getPoolName() == null) {
+            replica.setPoolName("replica");
+        }
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaStickiness replicaStickiness() {
+        return new ReplicaStickiness(stickinessMode, Duration.ofMillis(stickinessWindowMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource readWriteDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                          @Qualifier("replicaDataSource") DataSource replica,
+                                          ReplicaStickiness stickiness) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new StickyReplicaDataSource(replica, primary, stickiness));
+        return routing;
+    }
+
+    // Spring Boot registers TransactionExecutionListener beans with the JPA transaction manager
+    @Bean
+    public TransactionExecutionListener replicaStickinessListener(ReplicaStickiness stickiness) {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    stickiness.recordWrite();
+                }
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(ReplicaStickiness stickiness) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration = new FilterRegistrationBean<>(new ReplicaStickinessFilter(stickiness));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    // The read-only target of the routing proxy: the replica, unless this caller must read its own writes
+    private static final class StickyReplicaDataSource extends DelegatingDataSource {
+
+        private final DataSource primary;
+        private final ReplicaStickiness stickiness;
+
+        private StickyReplicaDataSource(DataSource replica, DataSource primary, ReplicaStickiness stickiness) {
+            super(replica);
+            this.primary = primary;
+            this.stickiness = stickiness;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return stickiness.readFromPrimary() ? primary.getConnection() : obtainTargetDataSource().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return stickiness.readFromPrimary()
+                    ? primary.getConnection(username, password) : obtainTargetDataSource().getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+public final class ReplicaStickiness {
+
+// 1. Purpose:
+//    - Staleness policy for read-only transactions when reads are routed to a replica (see ReadReplicaConfiguration).
+//      A replica applies the primary's writes with some lag, so a patient who books an appointment and immediately
+//      lists their appointments could be served a list without it. Reads that must see the caller's own writes
+//      are sent to the primary instead.
+//    - Created by ReadReplicaConfiguration; the per-request state and the session (the caller's token) are bound by
+//      ReplicaStickinessFilter. Outside a request (scheduled jobs, async work) reads use the replica.
+
+// 2. Modes (`datasource.replica.stickiness`):
+//    - NONE: every read-only transaction uses the replica.
+//    - REQUEST: after a read-write transaction commits, the rest of the same request reads from the primary.
+//    - SESSION (default): additionally, for `datasource.replica.stickiness-window-ms` after the commit, requests
+//      carrying the same token read from the primary. The window should exceed the replica's usual lag.
+//    - Recent writes are remembered per application instance; with several instances behind a load balancer
+//      SESSION only holds for requests that reach the same instance.
+
+    public enum Mode {
+        NONE, REQUEST, SESSION
+    }
+
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SESSIONS = 100_000;
+
+    private final Mode mode;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReplicaStickiness(Mode mode, Duration window) {
+        this.mode = mode;
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAX_SESSIONS)
+                .build();
+    }
+
+    static void start() {
+        CURRENT.set(new Session());
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // Identifies the caller's session (its token) for the rest of the request; ignored outside a request
+    void bindSession(String key) {
+        Session session = CURRENT.get();
+        if (session == null || key == null) {
+            return;
+        }
+        session.key = key;
+        if (session.wrote && mode == Mode.SESSION) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    // Called after a read-write transaction committed on this thread
+    void recordWrite() {
+        Session session = CURRENT.get();
+        if (session == null || mode == Mode.NONE) {
+            return;
+        }
+        session.wrote = true;
+        if (session.key != null && mode == Mode.SESSION) {
+            recentWrites.put(session.key, Boolean.TRUE);
+        }
+    }
+
+    // Whether a read-only transaction starting now on this thread must read from the primary
+    public boolean readFromPrimary() {
+        Session session = CURRENT.get();
+        if (session == null || mode == Mode.NONE) {
+            return false;
+        }
+        if (session.wrote) {
+            return true;
+        }
+        return mode == Mode.SESSION && session.key != null && recentWrites.getIfPresent(session.key) != null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private static final class Session {
+        private String key;
+        private boolean wrote;
+    }
+}
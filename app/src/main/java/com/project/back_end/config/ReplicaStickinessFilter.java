@@ -0,0 +1,58 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+// 1. Purpose:
+//    - Opens the per-request state ReplicaStickiness keeps (session token, whether the request wrote) and clears
+//      it when the request ends, so nothing leaks to the next request served by the same thread.
+//    - Registered by ReadReplicaConfiguration only when `datasource.replica.enabled=true`.
+
+// 2. Session:
+//    - Every authenticated route carries the caller's token as a path segment (/patient/{id}/{token},
+//      /patient/{id}/{token}/export, ...), so the token is taken from the path before the handler runs, whether or
+//      not the handler validates it. Requests without a token (login, public doctor search) have no session and only
+//      stick to the primary after their own writes.
+//    - The token is not verified here: a forged one can only send its own request's reads to the primary.
+
+    private final ReplicaStickiness stickiness;
+
+    public ReplicaStickinessFilter(ReplicaStickiness stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReplicaStickiness.start();
+        try {
+            stickiness.bindSession(token(request.getRequestURI()));
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaStickiness.clear();
+        }
+    }
+
+    // The last path segment shaped like a JWT, or null
+    static String token(String path) {
+        String[] segments = path.split("/");
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (isJwt(segments[i])) {
+                return segments[i];
+            }
+        }
+        return null;
+    }
+
+    // A compact JWS: three dot-separated parts, the header always starting with {" (eyJ in base64url)
+    private static boolean isJwt(String segment) {
+        return segment.startsWith("eyJ") && segment.chars().filter(c -> c == '.').count() == 2;
+    }
+}
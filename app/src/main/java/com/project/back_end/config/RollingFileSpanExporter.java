@@ -0,0 +1,204 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+public class RollingFileSpanExporter implements SpanExporter {
+
+// 1. Purpose:
+//    - Writes finished spans as JSON lines to `<directory>/spans.jsonl`, so traces can be read without an external
+//      backend (jq, or any tool that groups lines by traceId). One line per span with trace/span/parent ids, name,
+//      kind, start and duration, status, attributes and events (e.g. recorded exceptions).
+//    - Called by the BatchSpanProcessor's worker thread, one batch at a time; requests never wait on the file.
+
+// 2. Rolling:
+//    - When the current file reaches maxFileBytes it is renamed to spans.1.jsonl (older files shift up by one)
+//      and a new spans.jsonl is started; at most maxFiles rolled files are kept.
+//    - The directory is created on the first export. An I/O error fails that batch only and is logged.
+
+    private static final Logger log = LoggerFactory.getLogger(RollingFileSpanExporter.class);
+    private static final String FILE_NAME = "spans";
+    private static final String EXTENSION = ".jsonl";
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private OutputStream out;
+    private long written;
+    private boolean shutdown;
+
+    public RollingFileSpanExporter(Path directory, long maxFileBytes, int maxFiles) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (shutdown) {
+            return CompletableResultCode.ofFailure();
+        }
+        try {
+            for (SpanData span : spans) {
+                if (out == null || written >= maxFileBytes) {
+                    roll();
+                }
+                CountingOutputStream line = new CountingOutputStream(out);
+                try (JsonGenerator json = jsonFactory.createGenerator(line, JsonEncoding.UTF8)) {
+                    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    writeSpan(json, span);
+                }
+                out.write('\n');
+                written += line.count + 1;
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not write {} spans to {}", spans.size(), directory, e);
+            closeQuietly();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            if (out != null) {
+                out.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        shutdown = true;
+        closeQuietly();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void writeSpan(JsonGenerator json, SpanData span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.getTraceId());
+        json.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        json.writeStringField("name", span.getName());
+        json.writeStringField("kind", span.getKind().name());
+        json.writeStringField("service", span.getResource().getAttribute(SERVICE_NAME));
+        json.writeNumberField("startEpochNanos", span.getStartEpochNanos());
+        json.writeNumberField("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        json.writeStringField("status", span.getStatus().getStatusCode().name());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            json.writeStringField("statusDescription", span.getStatus().getDescription());
+        }
+        json.writeObjectFieldStart("attributes");
+        span.getAttributes().forEach((key, value) -> writeField(json, key.getKey(), value));
+        json.writeEndObject();
+        if (!span.getEvents().isEmpty()) {
+            json.writeArrayFieldStart("events");
+            for (EventData event : span.getEvents()) {
+                json.writeStartObject();
+                json.writeStringField("name", event.getName());
+                json.writeNumberField("epochNanos", event.getEpochNanos());
+                event.getAttributes().forEach((key, value) -> writeField(json, key.getKey(), value));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator json, String name, Object value) {
+        try {
+            if (value instanceof Number number) {
+                json.writeFieldName(name);
+                json.writeNumber(number.toString());
+            } else if (value instanceof Boolean bool) {
+                json.writeBooleanField(name, bool);
+            } else {
+                json.writeStringField(name, String.valueOf(value));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        closeQuietly();
+        Files.createDirectories(directory);
+        Path current = file(0);
+        if (Files.exists(current) && Files.size(current) >= maxFileBytes) {
+            Files.deleteIfExists(file(maxFiles));
+            for (int i = maxFiles - 1; i >= 0; i--) {
+                if (Files.exists(file(i))) {
+                    Files.move(file(i), file(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(current, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        written = Files.size(current);
+    }
+
+    private Path file(int index) {
+        return directory.resolve(index == 0 ? FILE_NAME + EXTENSION : FILE_NAME + "." + index + EXTENSION);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("Could not close span file", e);
+            }
+            out = null;
+        }
+    }
+
+    // Counts the bytes of one span line so the file size is known without asking the file system every time
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream target;
+        private long count;
+
+        private CountingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.project.back_end.models.CacheChange;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.CacheInvalidationEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "jpa.second-level-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfiguration {
+
+// 1. Purpose:
+//    - Hibernate second-level cache for the rows read on almost every request and rarely changed: Doctor (with its
+//      availableTimes) and Admin, loaded by id or by their natural ids (doctor email, admin username) in token
+//      validation, logins and appointment booking/validation.
+//    - JCache API with Caffeine as the in-process provider. Each application context gets its own CacheManager,
+//      so several contexts in one JVM (tests) never see each other's rows.
+//    - With `jpa.second-level-cache.enabled=false` no region factory is configured and the @Cache annotations on
+//      the entities have no effect.
+
+// 2. Regions (all READ_WRITE, declared on the entities):
+//    - "doctor", "doctor-available-times" and "doctor-by-email" (email -> id), sized by
+//      `jpa.second-level-cache.doctor.max-entries`.
+//    - "admin" and "admin-by-username", sized by `jpa.second-level-cache.admin.max-entries`.
+//    - Entries also expire after `jpa.second-level-cache.time-to-live-minutes`, which bounds how long a change made
+//      outside Hibernate (SQL scripts, SyntheticDataGenerator) can stay invisible.
+//    - A region that is not created here fails startup (missing_cache_strategy=fail) instead of silently getting
+//      an unbounded default cache.
+
+// 3. Other instances:
+//    - A doctor saved, updated or removed on another instance is evicted here when CacheChangePoller reads it from the
+//      change log: the doctor's entity and availableTimes entries, and the whole email lookup region, because a
+//      changed email leaves a mapping under the old value that cannot be addressed by id.
+//    - Admins have no write path in the application, so their regions rely on the time-to-live alone.
+
+// 4. Metrics:
+//    - Hibernate statistics are switched on, and Spring Boot binds them to Micrometer: per-region
+//      `hibernate.second.level.cache.requests` (result=hit|miss) and `hibernate.second.level.cache.puts`, plus
+//      `hibernate.cache.natural.id.requests` for the email/username lookups.
+
+    private static final String DOCTOR_REGION = "doctor";
+    private static final String DOCTOR_AVAILABLE_TIMES_REGION = "doctor-available-times";
+    private static final String DOCTOR_BY_EMAIL_REGION = "doctor-by-email";
+    private static final String ADMIN_REGION = "admin";
+    private static final String ADMIN_BY_USERNAME_REGION = "admin-by-username";
+
+    @Value("${jpa.second-level-cache.doctor.max-entries:10000}")
+    private long doctorMaxEntries;
+
+    @Value("${jpa.second-level-cache.admin.max-entries:100}")
+    private long adminMaxEntries;
+
+    @Value("${jpa.second-level-cache.time-to-live-minutes:60}")
+    private long timeToLiveMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        URI uri = URI.create("hibernate-second-level-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+        for (String region : new String[] {DOCTOR_REGION, DOCTOR_AVAILABLE_TIMES_REGION, DOCTOR_BY_EMAIL_REGION}) {
+            cacheManager.createCache(region, region(doctorMaxEntries));
+        }
+        for (String region : new String[] {ADMIN_REGION, ADMIN_BY_USERNAME_REGION}) {
+            cacheManager.createCache(region, region(adminMaxEntries));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public SecondLevelCacheInvalidation secondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheInvalidation(entityManagerFactory);
+    }
+
+    // Hibernate stores its own immutable cache entries, so values are kept by reference rather than copied
+    private CaffeineConfiguration<Object, Object> region(long maxEntries) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(maxEntries))
+                .setExpireAfterWrite(OptionalLong.of(Duration.ofMinutes(timeToLiveMinutes).toNanos()));
+    }
+
+    // Applies CacheInvalidationEvents from CacheChangePoller to the regions above
+    static final class SecondLevelCacheInvalidation {
+
+        private final EntityManagerFactory entityManagerFactory;
+
+        private SecondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory) {
+            this.entityManagerFactory = entityManagerFactory;
+        }
+
+        @EventListener
+        public void evict(CacheInvalidationEvent event) {
+            if (event.getKind() == CacheChange.Kind.DOCTOR) {
+                // Natural ids first: a reader that already sees the new entity must not resolve the old email
+                Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                cache.evictNaturalIdData(Doctor.class);
+                cache.evictEntityData(Doctor.class, event.getEntityId());
+                cache.evictCollectionData(Doctor.class.getName() + ".availableTimes", event.getEntityId());
+            }
+        }
+    }
+}
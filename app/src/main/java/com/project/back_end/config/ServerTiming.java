@@ -0,0 +1,127 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Locale;
+
+public final class ServerTiming {
+
+// 1. Purpose:
+//    - Per-request breakdown of where the time of a request went: token validation (auth), JPA repositories (db),
+//      PrescriptionRepository (mongo) and JSON serialization (serialize), plus the number of SQL statements and
+//      MongoDB commands issued. Emitted as a `Server-Timing` response header, e.g.
+//      `auth;dur=1.2, db;dur=8.4;desc="sql=3", mongo;dur=2.0;desc="commands=1", serialize;dur=0.3, app;dur=14.9`.
+//    - Created by ServerTimingFilter and bound to the request thread; interceptors find it through current().
+//      When Server-Timing is disabled none of those components exist, so nothing is recorded or allocated.
+
+// 2. Accounting:
+//    - A phase is timed only at its outermost call, so a repository default method calling another repository
+//      method is not counted twice. Different phases may overlap: auth includes the repository lookups it makes.
+//    - Work on other threads (reactive MongoDB pipelines, async exports) is not attributed to the request.
+//    - `app` is the time from the start of the filter chain until the header was written.
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        AUTH("auth"), DB("db"), MONGO("mongo"), SERIALIZE("serialize");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] phaseDepth = new int[PHASES.length];
+    private int sqlStatements;
+    private int mongoCommands;
+    private boolean headerWritten;
+
+    private ServerTiming() {
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // The timing of the request running on this thread, or null outside a timed request
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    // Returns the start time to pass to exit(), or 0 when an outer call of the same phase is already being timed
+    public long enter(Phase phase) {
+        return phaseDepth[phase.ordinal()]++ == 0 ? System.nanoTime() : 0L;
+    }
+
+    public void exit(Phase phase, long startNanos) {
+        phaseDepth[phase.ordinal()]--;
+        if (startNanos != 0L) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    void addNanos(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    void countSqlStatement() {
+        sqlStatements++;
+    }
+
+    void countMongoCommand() {
+        mongoCommands++;
+    }
+
+    // Headers must be set before the body is committed; the first of the JSON converter and the filter wins
+    void writeTo(HttpHeaders headers) {
+        if (!headerWritten) {
+            headerWritten = true;
+            headers.set(HEADER, headerValue());
+        }
+    }
+
+    void writeTo(HttpServletResponse response) {
+        if (!headerWritten && !response.isCommitted()) {
+            headerWritten = true;
+            response.setHeader(HEADER, headerValue());
+        }
+    }
+
+    String headerValue() {
+        StringBuilder value = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos == 0L && !(phase == Phase.DB && sqlStatements > 0) && !(phase == Phase.MONGO && mongoCommands > 0)) {
+                continue;
+            }
+            appendMetric(value, phase.metricName, nanos);
+            if (phase == Phase.DB) {
+                value.append(";desc=\"sql=").append(sqlStatements).append('"');
+            } else if (phase == Phase.MONGO) {
+                value.append(";desc=\"commands=").append(mongoCommands).append('"');
+            }
+        }
+        appendMetric(value, "app", System.nanoTime() - startNanos);
+        return value.toString();
+    }
+
+    private static void appendMetric(StringBuilder value, String name, long nanos) {
+        if (!value.isEmpty()) {
+            value.append(", ");
+        }
+        value.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+}
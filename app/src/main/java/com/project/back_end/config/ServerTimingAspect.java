@@ -0,0 +1,42 @@
+package com.project.back_end.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+@Aspect
+public class ServerTimingAspect {
+
+// 1. Purpose:
+//    - Adds the time spent in TokenService, the JPA repositories and PrescriptionRepository to the ServerTiming
+//      of the current request (auth, db and mongo). Outside a timed request the calls pass straight through.
+//    - Registered by ServerTimingConfiguration only when `server-timing.enabled=true`.
+
+    @Around("execution(public * com.project.back_end.services.TokenService.*(..))")
+    public Object timeAuth(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.Phase.AUTH);
+    }
+
+    @Around("execution(* org.springframework.data.jpa.repository.JpaRepository+.*(..))")
+    public Object timeDb(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.Phase.DB);
+    }
+
+    @Around("execution(* com.project.back_end.repo.PrescriptionRepository+.*(..))")
+    public Object timeMongo(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, ServerTiming.Phase.MONGO);
+    }
+
+    private static Object time(ProceedingJoinPoint joinPoint, ServerTiming.Phase phase) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        long start = timing.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(phase, start);
+        }
+    }
+}
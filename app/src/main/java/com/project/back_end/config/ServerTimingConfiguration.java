@@ -0,0 +1,90 @@
+package com.project.back_end.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration {
+
+// 1. Purpose:
+//    - Wires the `Server-Timing` response header (see ServerTiming) when `server-timing.enabled=true`.
+//    - With the property off none of these beans exist: no filter, no advice around TokenService or the repositories,
+//      no statement inspector or command listener, and the stock JSON converter. The disabled path costs nothing.
+
+// 2. Components:
+//    - ServerTimingFilter opens the per-request timing, right after Spring's own observation filter.
+//    - ServerTimingAspect times auth, db and mongo calls.
+//    - A Hibernate StatementInspector counts the SQL statements Hibernate sends (JPA repositories and HQL);
+//      JdbcTemplate queries such as the streamed daily report are not counted.
+//    - A MongoDB CommandListener counts the commands the blocking driver runs on the request thread.
+//    - ServerTimingJsonConverter replaces the Jackson converter to time serialization.
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    public ServerTimingAspect serverTimingAspect() {
+        return new ServerTimingAspect();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer serverTimingStatementInspector() {
+        StatementInspector inspector = sql -> {
+            ServerTiming timing = ServerTiming.current();
+            if (timing != null) {
+                timing.countSqlStatement();
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer serverTimingCommandListener() {
+        CommandListener listener = new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.countMongoCommand();
+                }
+            }
+        };
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    @Bean
+    public WebMvcConfigurer serverTimingJsonConverter() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+                for (int i = 0; i < converters.size(); i++) {
+                    if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                        converters.set(i, new ServerTimingJsonConverter(
+                                ((MappingJackson2HttpMessageConverter) converters.get(i)).getObjectMapper()));
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+// 1. Purpose:
+//    - Opens a ServerTiming for each request and writes the `Server-Timing` header when the response was not
+//      committed by then (empty bodies, redirects, error pages). JSON bodies are flushed by the message converter,
+//      so for those ServerTimingJsonConverter writes the header just before the body.
+//    - Registered by ServerTimingConfiguration only when `server-timing.enabled=true`.
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            timing.writeTo(response);
+            ServerTiming.clear();
+        }
+    }
+}
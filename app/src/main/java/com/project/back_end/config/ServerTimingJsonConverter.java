@@ -0,0 +1,51 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+public class ServerTimingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+// 1. Purpose:
+//    - The application's JSON converter (same ObjectMapper), except that during a timed request it serializes into
+//      a buffer first, so the serialization time is known and the `Server-Timing` header can still be set before
+//      the body is written. Outside a timed request it writes straight to the response as before.
+
+    public ServerTimingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object object, Type type, @NonNull HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public @NonNull OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public @NonNull HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        timing.addNanos(ServerTiming.Phase.SERIALIZE, System.nanoTime() - start);
+        timing.writeTo(outputMessage.getHeaders());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+// 1. Purpose:
+//    - Times every public method of the core services (AppointmentService, DoctorService, PatientService,
+//      PrescriptionService, Service, TokenService) as the `service.method` timer, tagged with class, method,
+//      outcome (success / failure) and exception.
+//    - Timers publish percentile histograms, so latency percentiles can be aggregated across instances in Prometheus;
+//      the timer's count doubles as the call counter per outcome.
+//    - Repository calls are timed by Spring Boot itself (`spring.data.repository.invocations`, tagged with
+//      repository, method and state); Hikari, MongoDB driver and JVM meters are bound automatically as well.
+
+// 2. Outcome:
+//    - failure when the method throws, or returns a ResponseEntity with a 5xx status (most service methods report
+//      errors that way instead of throwing); success otherwise, including 4xx answers to bad requests.
+//    - Calls between methods of the same service are not proxied and so not timed separately.
+
+    static final String METRIC_NAME = "service.method";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.project.back_end.services.AppointmentService.*(..)) || " +
+            "execution(public * com.project.back_end.services.DoctorService.*(..)) || " +
+            "execution(public * com.project.back_end.services.PatientService.*(..)) || " +
+            "execution(public * com.project.back_end.services.PrescriptionService.*(..)) || " +
+            "execution(public * com.project.back_end.services.Service.*(..)) || " +
+            "execution(public * com.project.back_end.services.TokenService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            Timer timer = result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError()
+                    ? failureTimer(method, "none")
+                    : successTimers.computeIfAbsent(method, this::successTimer);
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            failureTimer(method, e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer successTimer(Method method) {
+        return timer(method, "success", "none");
+    }
+
+    // Failures are rare, so their timers are looked up in the registry instead of being cached here
+    private Timer failureTimer(Method method, String exception) {
+        return timer(method, "failure", exception);
+    }
+
+    private Timer timer(Method method, String outcome, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent in core service methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
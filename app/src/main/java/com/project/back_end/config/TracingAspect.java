@@ -0,0 +1,72 @@
+package com.project.back_end.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Method;
+
+@Aspect
+public class TracingAspect {
+
+// 1. Purpose:
+//    - Opens a span for every controller handler and every public method of the core services (the same set that
+//      ServiceMetricsAspect times), named `Class.method`, as a child of the current span. A booking then shows as one
+//      trace: HTTP request -> AppointmentController.bookAppointment -> Service.validateAppointment ->
+//      DoctorService.getDoctorAvailability -> AppointmentService.bookAppointment, with the JDBC statements and
+//      MongoDB commands of each call nested underneath.
+//    - The HTTP server span itself, including trace context taken from incoming traceparent / b3 headers, comes
+//      from Spring Boot's request observation.
+
+// 2. Errors:
+//    - A thrown exception is recorded on the span; a 5xx ResponseEntity marks the span with outcome=failure,
+//      mirroring the outcome tag of the service.method timer.
+//    - Reactive handlers return before their Mono completes, so their span covers assembly only; the MongoDB command
+//      spans still join the request's trace through Reactor context propagation.
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(com.project.back_end.controllers..*) && " +
+            "@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("execution(public * com.project.back_end.services.AppointmentService.*(..)) || " +
+            "execution(public * com.project.back_end.services.DoctorService.*(..)) || " +
+            "execution(public * com.project.back_end.services.PatientService.*(..)) || " +
+            "execution(public * com.project.back_end.services.PrescriptionService.*(..)) || " +
+            "execution(public * com.project.back_end.services.Service.*(..)) || " +
+            "execution(public * com.project.back_end.services.TokenService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Span span = tracer.nextSpan()
+                .name(method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .tag("layer", layer)
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            Object result = joinPoint.proceed();
+            if (result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError()) {
+                span.tag("outcome", "failure");
+            }
+            return result;
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
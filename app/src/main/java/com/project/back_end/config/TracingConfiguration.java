@@ -0,0 +1,79 @@
+package com.project.back_end.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnEnabledTracing
+public class TracingConfiguration {
+
+// 1. Purpose:
+//    - OpenTelemetry tracing without an external backend. Spring Boot sets up the SDK tracer, the sampler
+//      (`management.tracing.sampling.probability`) and trace context propagation from incoming headers; the HTTP
+//      request span and the JDBC connection / statement spans (datasource-micrometer, `jdbc.*` properties) come
+//      from observations. This class adds the rest:
+//      - TracingAspect: controller and service method spans.
+//      - MongoDB command spans for the blocking and reactive drivers.
+//      - A BatchSpanProcessor that exports to RollingFileSpanExporter (`tracing.export.*`).
+//    - Off when `management.tracing.enabled=false`, which is also the default in tests.
+
+// 2. Batching:
+//    - Spans are queued (up to max-queue-size, further spans are dropped and counted) and written every
+//      schedule-delay or as soon as max-batch-size spans are waiting, on the processor's own thread.
+//    - On shutdown the queue is flushed before the file is closed.
+
+    @Value("${tracing.export.directory:./traces}")
+    private String directory;
+
+    @Value("${tracing.export.max-file-size-mb:50}")
+    private long maxFileSizeMb;
+
+    @Value("${tracing.export.max-files:5}")
+    private int maxFiles;
+
+    @Value("${tracing.export.schedule-delay-ms:2000}")
+    private long scheduleDelayMs;
+
+    @Value("${tracing.export.max-queue-size:8192}")
+    private int maxQueueSize;
+
+    @Value("${tracing.export.max-batch-size:512}")
+    private int maxBatchSize;
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTracingCustomizer(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    // Replaces Spring Boot's default processor, which exports every SpanExporter bean with fixed batch settings
+    @Bean
+    public BatchSpanProcessor fileSpanProcessor(ObjectProvider<MeterProvider> meterProvider) {
+        return BatchSpanProcessor.builder(new RollingFileSpanExporter(Path.of(directory),
+                        maxFileSizeMb * 1024 * 1024, maxFiles))
+                .setScheduleDelay(Duration.ofMillis(scheduleDelayMs))
+                .setMaxQueueSize(maxQueueSize)
+                .setMaxExportBatchSize(maxBatchSize)
+                .setMeterProvider(meterProvider.getIfUnique(MeterProvider::noop))
+                .build();
+    }
+}
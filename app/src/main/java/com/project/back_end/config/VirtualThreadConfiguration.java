@@ -0,0 +1,105 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+// 1. Purpose:
+//    - Opt-in virtual-thread execution: with `spring.threads.virtual.enabled=true` Spring Boot runs Tomcat request
+//      handling, the application task executor (async MVC, e.g. the streaming exports) and @Scheduled jobs on
+//      virtual threads, so a request blocked on JDBC, MongoDB or token parsing no longer holds one of a fixed
+//      number of worker threads. This class adds what the application needs on top of that.
+
+// 2. JDBC connection limit:
+//    - The DataSource is wrapped in ConnectionLimitingDataSource with as many permits as the Hikari pool has
+//      connections (`jdbc.connection-limit.permits` overrides it), so excess requests queue in a fair semaphore
+//      in front of the pool rather than inside it. `jdbc.connection-limit.timeout-ms` defaults to Hikari's
+//      connectionTimeout.
+//    - The wrapper is applied before datasource-micrometer's proxy, so the JDBC connection span includes the
+//      time spent waiting for a permit.
+//    - Gauges `jdbc.connections.permits.waiting` and `jdbc.connections.permits.available` show the queue.
+
+// 3. Not moved to virtual threads:
+//    - MonthlySummaryReportService keeps its fork/join pool: its size deliberately caps the connections one report holds.
+//    - AppointmentExportJob keeps its single thread, which serializes exports.
+//    - Reactor's boundedElastic scheduler (reactive outbox reads) follows the JVM flag
+//      -Dreactor.schedulers.defaultBoundedElasticOnVirtualThreads=true.
+
+// 4. Pinning:
+//    - A virtual thread inside a synchronized block cannot unmount while it blocks. The MySQL driver (9.x), Hikari
+//      and the MongoDB driver use java.util.concurrent locks; -Djdk.tracePinnedThreads=short reports any pinning left.
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new ConnectionLimitingPostProcessor(environment);
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> dataSource.ifAvailable(candidate -> {
+            ConnectionLimitingDataSource limited = unwrap(candidate);
+            if (limited != null) {
+                Gauge.builder("jdbc.connections.permits.waiting", limited, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Callers waiting for a JDBC connection permit")
+                        .register(registry);
+                Gauge.builder("jdbc.connections.permits.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("JDBC connection permits not in use")
+                        .register(registry);
+            }
+        });
+    }
+
+    // The DataSource bean is datasource-micrometer's proxy around the limiter
+    private static ConnectionLimitingDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConnectionLimitingDataSource.class)
+                    ? dataSource.unwrap(ConnectionLimitingDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static final class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+        private final Environment environment;
+
+        private ConnectionLimitingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) {
+                return bean;
+            }
+            // The pool size is only filled in with Hikari's default (10) when the pool starts
+            int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+            int permits = environment.getProperty("jdbc.connection-limit.permits", Integer.class, poolSize);
+            long timeoutMillis = environment.getProperty("jdbc.connection-limit.timeout-ms", Long.class, hikari.getConnectionTimeout());
+            return new ConnectionLimitingDataSource(hikari, permits, timeoutMillis);
+        }
+
+        // Before datasource-micrometer wraps the pool in its tracing proxy
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
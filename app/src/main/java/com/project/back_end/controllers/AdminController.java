@@ -2,13 +2,23 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.AppointmentExportJob;
+import com.project.back_end.services.DoctorRollupService;
+import com.project.back_end.services.MonthlySummaryReportService;
+import com.project.back_end.services.ReportService;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.UtilizationHeatmapService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -16,9 +26,27 @@ import java.util.Map;
 public class AdminController {
 
     private final Service service;
-
-    public AdminController(Service service) {
+    private final ReportService reportService;
+    private final DoctorRollupService doctorRollupService;
+    private final UtilizationHeatmapService utilizationHeatmapService;
+    private final MonthlySummaryReportService monthlySummaryReportService;
+    private final AppointmentExportJob appointmentExportJob;
+
+    @Value("${report.max-range-days:366}")
+    private long maxRangeDays;
+
+    public AdminController(Service service,
+                           ReportService reportService,
+                           DoctorRollupService doctorRollupService,
+                           UtilizationHeatmapService utilizationHeatmapService,
+                           MonthlySummaryReportService monthlySummaryReportService,
+                           AppointmentExportJob appointmentExportJob) {
         this.service = service;
+        this.reportService = reportService;
+        this.doctorRollupService = doctorRollupService;
+        this.utilizationHeatmapService = utilizationHeatmapService;
+        this.monthlySummaryReportService = monthlySummaryReportService;
+        this.appointmentExportJob = appointmentExportJob;
     }
 
     @PostMapping("/login")
@@ -26,6 +54,129 @@ public class AdminController {
         return service.validateAdmin(admin);
     }
 
+    @GetMapping("/reports/daily-appointments/{token}")
+    public ResponseEntity<?> dailyAppointmentReport(
+            @PathVariable String token,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = ReportService.FORMAT_CSV) String format) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        if (!ReportService.FORMAT_CSV.equals(format) && !ReportService.FORMAT_NDJSON.equals(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid format. Use 'csv' or 'ndjson'"));
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid date range. 'to' must not be before 'from' and span at most " + maxRangeDays + " days"));
+        }
+
+        StreamingResponseBody body = out -> reportService.writeDailyAppointmentReport(from, to, format, out);
+        MediaType contentType = ReportService.FORMAT_NDJSON.equals(format)
+                ? MediaType.parseMediaType("application/x-ndjson")
+                : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header("Content-Disposition",
+                        "attachment; filename=\"daily-appointments-" + from + "-to-" + to + "." + format + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/reports/top-doctors/{token}")
+    public ResponseEntity<Map<String, Object>> topDoctors(
+            @PathVariable String token,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Integer> status,
+            @RequestParam(defaultValue = "" + DoctorRollupService.DEFAULT_TOP_DOCTORS) int limit) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date range. 'to' must not be before 'from'"));
+        }
+
+        return doctorRollupService.getTopDoctors(from, to, status, limit);
+    }
+
+    @GetMapping("/reports/heatmap/{token}")
+    public ResponseEntity<Map<String, Object>> utilizationHeatmap(
+            @PathVariable String token,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String specialty) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+        if ((doctorId == null) == (specialty == null || specialty.isBlank())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Specify either 'doctorId' or 'specialty'"));
+        }
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid date range. 'to' must not be before 'from' and span at most " + maxRangeDays + " days"));
+        }
+
+        return doctorId != null
+                ? utilizationHeatmapService.getHeatmap(UtilizationHeatmapService.SCOPE_DOCTOR, doctorId.toString(), from, to)
+                : utilizationHeatmapService.getHeatmap(UtilizationHeatmapService.SCOPE_SPECIALTY, specialty.trim(), from, to);
+    }
+
+    @GetMapping("/reports/monthly-summary/{token}")
+    public ResponseEntity<Map<String, Object>> monthlySummary(
+            @PathVariable String token,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return monthlySummaryReportService.getMonthlySummary(month);
+    }
+
+    @PostMapping("/exports/appointments/{token}")
+    public ResponseEntity<Map<String, Object>> startAppointmentExport(
+            @PathVariable String token,
+            @RequestParam(defaultValue = "false") boolean full) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return appointmentExportJob.start(full);
+    }
+
+    @GetMapping("/exports/appointments/{token}")
+    public ResponseEntity<Map<String, Object>> appointmentExportStatus(@PathVariable String token) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return appointmentExportJob.status();
+    }
+
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to indicate that it's a REST controller, used to handle web requests and return JSON responses.
 //    - Use `@RequestMapping("${api.path}admin")` to define a base path for all endpoints in this controller.
@@ -45,6 +196,32 @@ public class AdminController {
 //    - Returns a `ResponseEntity` with a `Map` containing login status or messages.
 
 
+// 4. Define the `dailyAppointmentReport` Method:
+//    - Handles HTTP GET requests to `/reports/daily-appointments/{token}?from=YYYY-MM-DD&to=YYYY-MM-DD&format=csv|ndjson`.
+//    - Validates the token for the `"admin"` role and the range (inclusive, at most `report.max-range-days`) before anything is streamed.
+//    - Streams the per-doctor daily report straight from the database cursor to the response through `ReportService`.
+
+
+// 5. Define the `topDoctors` Method:
+//    - Handles HTTP GET requests to `/reports/top-doctors/{token}?from=YYYY-MM-DD&to=YYYY-MM-DD[&status=1&status=2][&limit=10]`.
+//    - Works for any period (a day, a month, a year, ...) and reads only the doctor_daily_count rollup.
+
+
+// 6. Define the `utilizationHeatmap` Method:
+//    - Handles HTTP GET requests to `/reports/heatmap/{token}?from=YYYY-MM-DD&to=YYYY-MM-DD&(doctorId=1|specialty=Cardiology)`.
+//    - Returns the weekday x hour booked / offered / occupancy matrices from `UtilizationHeatmapService`, cached per scope and range.
+
+
+// 7. Define the `monthlySummary` Method:
+//    - Handles HTTP GET requests to `/reports/monthly-summary/{token}?month=YYYY-MM`.
+//    - Returns every doctor's appointments by status and prescriptions issued that month, built in parallel by `MonthlySummaryReportService`.
+
+
+// 8. Define the `startAppointmentExport` / `appointmentExportStatus` Methods:
+//    - POST `/exports/appointments/{token}[?full=true]` starts the monthly columnar export in the background (202, or 409 if one is running).
+//    - GET `/exports/appointments/{token}` reports whether it is running and how the last run ended.
+
+
 
 }
 
@@ -0,0 +1,98 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.AppointmentCube;
+import com.project.back_end.services.Service;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@ConditionalOnProperty(name = "analytics.cube.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("${api.path}" + "admin/analytics")
+public class AnalyticsController {
+
+    private final AppointmentCube appointmentCube;
+    private final Service service;
+
+    public AnalyticsController(AppointmentCube appointmentCube,
+                               Service service) {
+        this.appointmentCube = appointmentCube;
+        this.service = service;
+    }
+
+    @GetMapping("/utilization/{token}")
+    public ResponseEntity<Map<String, Object>> utilization(
+            @PathVariable String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long doctorId) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return appointmentCube.utilization(from, to, doctorId);
+    }
+
+    @GetMapping("/no-show-rate/{token}")
+    public ResponseEntity<Map<String, Object>> noShowRate(
+            @PathVariable String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long doctorId) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return appointmentCube.noShowRate(from, to, doctorId);
+    }
+
+    @GetMapping("/busiest-hours/{token}")
+    public ResponseEntity<Map<String, Object>> busiestHours(
+            @PathVariable String token,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "admin");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return appointmentCube.busiestHours(from, to, doctorId, limit);
+    }
+
+// 1. Set Up the Controller Class:
+//    - Admin dashboard metrics under `${api.path}admin/analytics`, answered from the in-memory AppointmentCube
+//      without touching the database.
+//    - `from` / `to` are optional ISO dates (default: the last 30 days) and are clamped to the cube's window;
+//      `doctorId` narrows a metric to one doctor.
+
+
+// 2. Define the `utilization` Method:
+//    - Booked versus offered hourly slots per doctor.
+
+
+// 3. Define the `noShowRate` Method:
+//    - Share of past appointments that were never completed or cancelled.
+
+
+// 4. Define the `busiestHours` Method:
+//    - The `limit` busiest hours of the day by booked appointments.
+
+
+}
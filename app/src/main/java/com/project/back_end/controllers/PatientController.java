@@ -4,8 +4,11 @@ import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -60,7 +63,9 @@ public class PatientController {
     @GetMapping("/{id}/{token}")
     public ResponseEntity<Map<String, Object>> getPatientAppointment(
             @PathVariable Long id,
-            @PathVariable String token) {
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PatientService.DEFAULT_PAGE_SIZE) int limit) {
 
         /*ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "patient");
 
@@ -69,7 +74,24 @@ public class PatientController {
                     .body(Map.of("error", "Invalid or expired token"));
         }*/
 
-        return patientService.getPatientAppointment(id, token);
+        return patientService.getPatientAppointment(id, token, cursor, limit);
+    }
+
+    @GetMapping(value = "/{id}/{token}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPatientAppointment(
+            @PathVariable Long id,
+            @PathVariable String token) {
+
+        // The history is shown on the doctor dashboards and to the patient it belongs to
+        HttpStatus access = service.validatePatientAccess(token, id);
+        if (access.isError()) {
+            return ResponseEntity.status(access).build();
+        }
+
+        StreamingResponseBody body = out -> patientService.exportPatientAppointments(id, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/filter/{condition}/{name}/{token}")
@@ -120,6 +142,9 @@ public class PatientController {
 // 6. Define the `getPatientAppointment` Method:
 //    - Handles HTTP GET requests to fetch appointment details for a specific patient.
 //    - Requires the patient ID, token, and user role as path variables.
+//    - Accepts optional `cursor` and `limit` query parameters; the response includes `nextCursor` while more pages remain.
+//    - `exportPatientAppointment` streams the complete history as NDJSON from `/{id}/{token}/export`, to doctors and to
+//      the patient `id` itself (403 for other patients' tokens).
 //    - Validates the token using the shared service.
 //    - If valid, retrieves the patient's appointment data from `PatientService`; otherwise, returns a validation error.
 
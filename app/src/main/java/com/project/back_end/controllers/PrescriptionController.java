@@ -1,28 +1,28 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.DTO.PrescriptionBatchRequest;
 import com.project.back_end.models.Prescription;
-import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Service;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
 @RestController
+@ConditionalOnProperty(name = "prescription.api.mode", havingValue = "blocking")
 @RequestMapping("${api.path}" + "prescription")
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
     private final Service service;
-    private final AppointmentService appointmentService;
 
     public PrescriptionController(PrescriptionService prescriptionService,
-                                  Service service,
-                                  AppointmentService appointmentService) {
+                                  Service service) {
         this.prescriptionService = prescriptionService;
         this.service = service;
-        this.appointmentService = appointmentService;
     }
 
     @PostMapping("/{token}")
@@ -36,9 +36,7 @@ public class PrescriptionController {
             return validationResponse;
         }
 
-        // Update appointment status to indicate prescription added
-        appointmentService.changeStatus(prescription.getAppointmentId(), 2); // Assuming 2 means "prescribed"
-
+        // The appointment status is updated in the same MySQL transaction that records the prescription
         ResponseEntity<Map<String, String>> saveResponse = prescriptionService.savePrescription(prescription);
 
         if (saveResponse.getStatusCode().is2xxSuccessful()) {
@@ -62,25 +60,60 @@ public class PrescriptionController {
 
         return prescriptionService.getPrescription(appointmentId);
     }
+
+    @GetMapping("/patient/{patientId}/{token}")
+    public ResponseEntity<Map<String, Object>> getPatientPrescriptions(
+            @PathVariable Long patientId,
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PrescriptionService.DEFAULT_HISTORY_PAGE_SIZE) int limit) {
+
+        // Medication history is read by doctors and by the patients themselves, never by other patients
+        HttpStatus access = service.validatePatientAccess(token, patientId);
+        if (access.isError()) {
+            String error = access == HttpStatus.FORBIDDEN
+                    ? "Not allowed to read this patient's prescriptions" : "Invalid or expired token";
+            return ResponseEntity.status(access).body(Map.of("error", error));
+        }
+
+        return prescriptionService.getPatientPrescriptions(patientId, cursor, limit);
+    }
+
+    @PostMapping("/batch/{token}")
+    public ResponseEntity<Map<String, Object>> getPrescriptions(
+            @RequestBody PrescriptionBatchRequest request,
+            @PathVariable String token) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "doctor");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token"));
+        }
+
+        return prescriptionService.getPrescriptions(request.getAppointmentIds(), request.getFields());
+    }
     
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to define it as a REST API controller.
 //    - Use `@RequestMapping("${api.path}prescription")` to set the base path for all prescription-related endpoints.
 //    - This controller manages creating and retrieving prescriptions tied to appointments.
+//    - It is the blocking variant, active only with `prescription.api.mode=blocking`; by default ReactivePrescriptionController
+//      serves the same paths.
 
 
 // 2. Autowire Dependencies:
 //    - Inject `PrescriptionService` to handle logic related to saving and fetching prescriptions.
 //    - Inject the shared `Service` class for token validation and role-based access control.
-//    - Inject `AppointmentService` to update appointment status after a prescription is issued.
 
 
 // 3. Define the `savePrescription` Method:
 //    - Handles HTTP POST requests to save a new prescription for a given appointment.
 //    - Accepts a validated `Prescription` object in the request body and a doctor’s token as a path variable.
 //    - Validates the token for the `"doctor"` role.
-//    - If the token is valid, updates the status of the corresponding appointment to reflect that a prescription has been added.
-//    - Delegates the saving logic to `PrescriptionService` and returns a response indicating success or failure.
+//    - If the token is valid, delegates to `PrescriptionService`, which records the prescription and updates the status of the
+//      corresponding appointment in one MySQL transaction; the MongoDB write happens asynchronously through the outbox.
+//    - Returns a response indicating success or failure.
 
 
 // 4. Define the `getPrescription` Method:
@@ -91,4 +124,15 @@ public class PrescriptionController {
 //    - Returns the prescription details or an appropriate error message if validation fails.
 
 
+// 5. Define the `getPatientPrescriptions` Method:
+//    - Handles HTTP GET requests to `/patient/{patientId}/{token}` with optional `cursor` and `limit` query parameters.
+//    - Accepts a doctor's token, or the token of that same patient, and returns one page of the patient's prescriptions,
+//      newest first. Another patient's token gets `403 Forbidden`.
+
+
+// 6. Define the `getPrescriptions` Method:
+//    - Handles HTTP POST requests to `/batch/{token}` with a list of appointment IDs and optional fields to project.
+//    - Validates the token once for the `"doctor"` role and resolves all prescriptions with a single MongoDB query.
+
+
 }
@@ -0,0 +1,119 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.DTO.PrescriptionBatchRequest;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.services.PrescriptionService;
+import com.project.back_end.services.ReactivePrescriptionService;
+import com.project.back_end.services.Service;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@ConditionalOnProperty(name = "prescription.api.mode", havingValue = "reactive", matchIfMissing = true)
+@RequestMapping("${api.path}" + "prescription")
+public class ReactivePrescriptionController {
+
+    private final PrescriptionService prescriptionService;
+    private final ReactivePrescriptionService reactivePrescriptionService;
+    private final Service service;
+
+    public ReactivePrescriptionController(PrescriptionService prescriptionService,
+                                          ReactivePrescriptionService reactivePrescriptionService,
+                                          Service service) {
+        this.prescriptionService = prescriptionService;
+        this.reactivePrescriptionService = reactivePrescriptionService;
+        this.service = service;
+    }
+
+    @PostMapping("/{token}")
+    public ResponseEntity<Map<String, String>> savePrescription(
+            @RequestBody Prescription prescription,
+            @PathVariable String token) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "doctor");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return validationResponse;
+        }
+
+        // No MongoDB access on this thread: savePrescription only commits the outbox row and the status change in
+        // MySQL, and PrescriptionOutboxRelay writes MongoDB later
+        ResponseEntity<Map<String, String>> saveResponse = prescriptionService.savePrescription(prescription);
+
+        if (saveResponse.getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.ok(Map.of("message", "Prescription saved successfully"));
+        } else {
+            return saveResponse;
+        }
+    }
+
+    @GetMapping("/{appointmentId}/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(
+            @PathVariable Long appointmentId,
+            @PathVariable String token) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "doctor");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return Mono.just(ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token")));
+        }
+
+        return reactivePrescriptionService.getPrescription(appointmentId);
+    }
+
+    @GetMapping("/patient/{patientId}/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPatientPrescriptions(
+            @PathVariable Long patientId,
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PrescriptionService.DEFAULT_HISTORY_PAGE_SIZE) int limit) {
+
+        // Medication history is read by doctors and by the patients themselves, never by other patients
+        HttpStatus access = service.validatePatientAccess(token, patientId);
+        if (access.isError()) {
+            String error = access == HttpStatus.FORBIDDEN
+                    ? "Not allowed to read this patient's prescriptions" : "Invalid or expired token";
+            return Mono.just(ResponseEntity.status(access).body(Map.of("error", error)));
+        }
+
+        return reactivePrescriptionService.getPatientPrescriptions(patientId, cursor, limit);
+    }
+
+    @PostMapping("/batch/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescriptions(
+            @RequestBody PrescriptionBatchRequest request,
+            @PathVariable String token) {
+
+        ResponseEntity<Map<String, String>> validationResponse = service.validateToken(token, "doctor");
+
+        if (validationResponse.getStatusCode().isError()) {
+            return Mono.just(ResponseEntity.status(validationResponse.getStatusCode())
+                    .body(Map.of("error", "Invalid or expired token")));
+        }
+
+        return reactivePrescriptionService.getPrescriptions(request.getAppointmentIds(), request.getFields());
+    }
+
+// 1. Set Up the Controller Class:
+//    - Serves the same `${api.path}prescription` endpoints as PrescriptionController, with identical requests and responses.
+//    - Active by default; set `prescription.api.mode=blocking` to switch back to PrescriptionController for comparison.
+
+
+// 2. Non-blocking reads:
+//    - The read endpoints return a `Mono`. Spring MVC completes the request asynchronously, so the Tomcat worker is released
+//      as soon as the MongoDB query has been sent instead of waiting for its result.
+//    - Token validation is a short MySQL lookup and still runs on the request thread before the query is issued.
+
+
+// 3. savePrescription:
+//    - Stays a plain blocking handler around one short MySQL transaction: it never calls MongoDB on the request path, not
+//      even to check for an existing prescription (duplicates are caught by the outbox's unique key and by the relay).
+
+
+}
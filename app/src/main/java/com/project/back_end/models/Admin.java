@@ -6,14 +6,24 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "admin")
+@NaturalIdCache(region = "admin-by-username")
 public class Admin {
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, which means it represents a table in the database.
 //    - It is required for persistence frameworks like Hibernate to map the class to a database table.
 
+// @Cache / @NaturalIdCache annotations:
+//    - Admins are kept in the Hibernate second-level cache (regions "admin" and "admin-by-username", see
+//      SecondLevelCacheConfiguration); every admin request checks its username.
+
 // 1. 'id' field:
 //    - Type: private Long
 //    - Description: 
@@ -31,7 +41,9 @@ public class Admin {
 //      - Represents the username of the admin.
 //      - Used to log into the system.
 //      - @NotNull validation ensures that this field cannot be null when creating or updating an Admin.
+//      - @NaturalId makes it the admin's unique business key, looked up through the natural-id cache.
     @NotNull(message = "username cannot be null")
+    @NaturalId
     private String username;
 
 // 3. 'password' field:
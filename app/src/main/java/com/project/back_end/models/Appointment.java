@@ -10,12 +10,28 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time, id"),
+        @Index(name = "idx_appointment_status_time", columnList = "status, appointment_time"),
+        @Index(name = "idx_appointment_doctor_time", columnList = "doctor_id, appointment_time, status"),
+        @Index(name = "idx_appointment_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_appointment_time", columnList = "appointment_time, doctor_id, patient_id, status")
+})
 public class Appointment {
 
   // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
 
+// @Table indexes:
+//    - idx_appointment_patient_time backs the keyset-paginated patient history, which filters on patient_id
+//      and orders by (appointment_time, id).
+//    - idx_appointment_status_time lets the archiver find finished appointments older than the horizon without a full scan.
+//    - idx_appointment_doctor_time covers the per-doctor time-range counts of the utilization heatmap.
+//    - idx_appointment_updated_at lets the analytics export find the months that changed since its last run.
+//    - idx_appointment_time serves the daily report, which filters on appointment_time across all doctors; it also
+//      holds every column the report reads from this table, so the range is answered from the index alone.
+
 // 1. 'id' field:
 //    - Type: private Long
 //    - Description:
@@ -67,6 +83,13 @@ public class Appointment {
     @NotNull
     private int status;
 
+// 6. 'updatedAt' field:
+//    - Type: private LocalDateTime
+//    - Description:
+//      - When the row was last inserted or changed; set on persist / update and by AppointmentRepository.updateStatus.
+//      - Used as the change watermark of AppointmentExportJob. Null for rows written before the column existed.
+    private LocalDateTime updatedAt;
+
     // Status Constants
     public static final int STATUS_SCHEDULED = 0;
     public static final int STATUS_COMPLETED = 1;
@@ -86,7 +109,13 @@ public class Appointment {
                 this.appointmentTime.isAfter(LocalDateTime.now());
     }
 
-// 6. 'getEndTime' method:
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+// 7. 'getEndTime' method:
 //    - Type: private LocalDateTime
 //    - Description:
 //      - This method is a transient field (not persisted in the database).
@@ -97,7 +126,7 @@ public class Appointment {
         return appointmentTime.plusHours(1);
     }
 
-// 7. 'getAppointmentDate' method:
+// 8. 'getAppointmentDate' method:
 //    - Type: private LocalDate
 //    - Description:
 //      - This method extracts only the date part from the appointmentTime field.
@@ -107,7 +136,7 @@ public class Appointment {
         return appointmentTime.toLocalDate();
     }
 
-// 8. 'getAppointmentTimeOnly' method:
+// 9. 'getAppointmentTimeOnly' method:
 //    - Type: private LocalTime
 //    - Description:
 //      - This method extracts only the time part from the appointmentTime field.
@@ -117,7 +146,7 @@ public class Appointment {
         return appointmentTime.toLocalTime();
     }
 
-// 9. Constructor(s):
+// 10. Constructor(s):
 //    - A no-argument constructor is implicitly provided by JPA for entity creation.
 //    - A parameterized constructor can be added as needed to initialize fields.
 
@@ -125,7 +154,7 @@ public class Appointment {
     }
 
 
-// 10. Getters and Setters:
+// 11. Getters and Setters:
 //    - Standard getter and setter methods are provided for accessing and modifying the fields: id, doctor, patient, appointmentTime, status, etc.
 
 
@@ -168,5 +197,8 @@ public class Appointment {
     public void setStatus(int status) {
         this.status = status;
     }
-}
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
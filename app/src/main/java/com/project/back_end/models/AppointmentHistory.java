@@ -0,0 +1,70 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Subselect("SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment " +
+        "UNION ALL " +
+        "SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment_archive")
+@Synchronize({"appointment", "appointment_archive"})
+public class AppointmentHistory {
+
+// @Entity / @Subselect annotations:
+//    - Read-only view over the hot `appointment` table and the cold `appointment_archive` table.
+//    - Historical reads (patient history, reports) query this entity so they see every appointment
+//      regardless of whether the archiver has moved it yet.
+//    - @Synchronize makes Hibernate flush pending writes to either table before querying the view.
+//    - MySQL reads it as a derived table: WHERE conditions are pushed into both branches (8.0.29+), but ORDER BY and
+//      LIMIT are applied only after the matching rows of both tables have been materialized and sorted.
+//    - No table is created for it; writes always go through Appointment.
+
+// 1. 'id' field:
+//    - The appointment id, unique across both tables because archived rows keep their original id.
+    @Id
+    private Long id;
+
+// 2. 'doctor' and 'patient' fields:
+//    - Lazily loaded; history queries project the columns they need instead of loading entities.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
+
+// 3. 'appointmentTime' and 'status' fields:
+//    - Same meaning as on Appointment.
+    private LocalDateTime appointmentTime;
+
+    private int status;
+
+    protected AppointmentHistory() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "appointment_removal", indexes = {
+        @Index(name = "idx_appointment_removal_removed_at", columnList = "removed_at")
+})
+public class AppointmentRemoval {
+
+// @Entity annotation:
+//    - Insert-only log of appointments that left a month without leaving an updated row behind: cancellations
+//      (which delete the row), reschedules into another month, and doctor deletions.
+//    - Together with Appointment.updatedAt it tells AppointmentExportJob which months changed since its watermark.
+//    - The export purges entries once they are older than its watermark.
+
+// 1. 'id' field:
+//    - Generated; entries are only ever inserted and purged.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+// 2. 'appointmentTime' and 'removedAt' fields:
+//    - The time of the removed appointment (only its month matters) and when the removal happened.
+    private LocalDateTime appointmentTime;
+
+    private LocalDateTime removedAt;
+
+    public AppointmentRemoval() {
+    }
+
+    public AppointmentRemoval(LocalDateTime appointmentTime, LocalDateTime removedAt) {
+        this.appointmentTime = appointmentTime;
+        this.removedAt = removedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public LocalDateTime getRemovedAt() {
+        return removedAt;
+    }
+}
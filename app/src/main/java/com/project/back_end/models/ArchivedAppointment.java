@@ -0,0 +1,78 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "appointment_archive", indexes = {
+        @Index(name = "idx_appointment_archive_patient_time", columnList = "patient_id, appointment_time, id"),
+        @Index(name = "idx_appointment_archive_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_appointment_archive_time", columnList = "appointment_time, doctor_id, patient_id, status")
+})
+public class ArchivedAppointment {
+
+// @Entity annotation:
+//    - Cold storage for appointments that are finished (completed or cancelled) and older than the archive horizon.
+//    - Rows are moved here by AppointmentArchiver so the hot `appointment` table and its indexes only hold the active working set.
+//    - The columns mirror `appointment`, plus the time the row was archived.
+
+// 1. 'id' field:
+//    - Type: private Long
+//    - Description:
+//      - Keeps the id the appointment had in the hot table, so prescriptions (which reference appointmentId) still resolve.
+//      - Not generated: ids are always copied from `appointment`.
+    @Id
+    private Long id;
+
+// 2. 'doctor' and 'patient' fields:
+//    - Type: private Doctor / private Patient
+//    - Description:
+//      - Same foreign keys as the hot table, loaded lazily because archived rows are almost always read as projections.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
+
+// 3. 'appointmentTime' and 'status' fields:
+//    - Copied unchanged from the hot row.
+    private LocalDateTime appointmentTime;
+
+    private int status;
+
+// 4. 'archivedAt' field:
+//    - Type: private LocalDateTime
+//    - Description:
+//      - When the archiver moved the row, useful for auditing archive runs.
+    private LocalDateTime archivedAt;
+
+    public ArchivedAppointment() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cache_change_log", indexes = {
+        @Index(name = "idx_cache_change_log_changed_at", columnList = "changed_at")
+})
+public class CacheChange {
+
+// @Entity annotation:
+//    - One change to a doctor or an appointment that in-process caches may hold a stale copy of.
+//    - The row is inserted in the same MySQL transaction as the change itself, so it becomes visible exactly when
+//      the change does; every application instance polls the table (CacheChangePoller) and evicts what it caches.
+
+    public enum Kind {
+        DOCTOR,
+        APPOINTMENT
+    }
+
+// 1. 'id' field:
+//    - Auto-generated; pollers read the table in id order with a cursor.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+// 2. 'kind' / 'entityId' fields:
+//    - What changed: the doctor or appointment id.
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+// 3. 'doctorId' field:
+//    - The doctor whose schedule the change affects (the doctor itself for DOCTOR, the appointment's doctor for
+//      APPOINTMENT).
+    private Long doctorId;
+
+// 4. 'changedAt' field:
+//    - When the change was recorded; only used to purge old rows.
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public CacheChange() {
+    }
+
+    public CacheChange(Kind kind, Long entityId, Long doctorId) {
+        this.kind = kind;
+        this.entityId = entityId;
+        this.doctorId = doctorId;
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -6,16 +6,28 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
+@NaturalIdCache(region = "doctor-by-email")
 public class Doctor {
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
 
+// @Cache / @NaturalIdCache annotations:
+//    - Doctors are kept in the Hibernate second-level cache (regions "doctor" and "doctor-by-email", see
+//      SecondLevelCacheConfiguration), so loads by id or email on every booking and login skip the database.
+
 // 1. 'id' field:
 //    - Type: private Long
 //    - Description:
@@ -54,8 +66,11 @@ public class Doctor {
 //      - Represents the doctor's email address.
 //      - The @NotNull annotation ensures that an email address is required.
 //      - The @Email annotation validates that the email address follows a valid email format (e.g., doctor@example.com).
+//      - @NaturalId makes it the doctor's unique business key, looked up through the natural-id cache; mutable because
+//        updateDoctor may change it.
     @NotNull
     @Email
+    @NaturalId(mutable = true)
     private String email;
 
 // 5. 'password' field:
@@ -86,7 +101,11 @@ public class Doctor {
 //      - Represents the available times for the doctor in a list of time slots.
 //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
 //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
+//      - @Fetch(SUBSELECT) loads the slots of every doctor returned by a query with one extra statement instead of one per doctor.
+//      - The slots are cached with the doctor (region "doctor-available-times").
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor-available-times")
     private List<String> availableTimes;
 
 // 8. Getters and Setters:
@@ -0,0 +1,102 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@Table(name = "doctor_daily_count", indexes = {
+        @Index(name = "idx_doctor_daily_count_date", columnList = "appointment_date, doctor_id")
+})
+@IdClass(DoctorDailyCount.Key.class)
+public class DoctorDailyCount {
+
+// @Entity annotation:
+//    - Rollup of appointments per (doctor, day, status), covering both `appointment` and `appointment_archive`.
+//    - Kept up to date incrementally by DoctorRollupService in the same transaction as every booking, update,
+//      status change, cancellation and doctor deletion, and checked nightly by DoctorRollupReconciler.
+//    - Doctor reports read this table only, so their cost depends on the number of doctors and days, not appointments.
+
+// 1. 'doctorId', 'appointmentDate' and 'status' fields:
+//    - The composite primary key; counts are changed with an atomic INSERT ... ON DUPLICATE KEY UPDATE on it.
+    @Id
+    private Long doctorId;
+
+    @Id
+    private LocalDate appointmentDate;
+
+    @Id
+    private int status;
+
+// 2. 'appointmentCount' field:
+//    - Number of appointments of this doctor on this day in this status.
+    private long appointmentCount;
+
+    public DoctorDailyCount() {
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getAppointmentCount() {
+        return appointmentCount;
+    }
+
+    public Key getKey() {
+        return new Key(doctorId, appointmentDate, status);
+    }
+
+// 3. Key class:
+//    - Identifier class for the composite key, also used to match rollup rows against recomputed counts.
+    public static class Key implements Serializable {
+
+        private Long doctorId;
+        private LocalDate appointmentDate;
+        private int status;
+
+        public Key() {
+        }
+
+        public Key(Long doctorId, LocalDate appointmentDate, int status) {
+            this.doctorId = doctorId;
+            this.appointmentDate = appointmentDate;
+            this.status = status;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDate getAppointmentDate() {
+            return appointmentDate;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return status == key.status && Objects.equals(doctorId, key.doctorId)
+                    && Objects.equals(appointmentDate, key.appointmentDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, appointmentDate, status);
+        }
+    }
+}
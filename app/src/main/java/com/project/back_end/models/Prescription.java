@@ -1,16 +1,21 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 @Document(collection = "prescriptions")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Prescription {
 
   // @Document annotation:
 //    - Marks the class as a MongoDB document (a collection in MongoDB).
 //    - The collection name is specified as "prescriptions" to map this class to the "prescriptions" collection in MongoDB.
+//    - @JsonInclude(NON_NULL) keeps fields that were left out of a projected batch lookup out of the JSON response.
 
 // 1. 'id' field:
 //    - Type: private String
@@ -65,13 +70,26 @@ public class Prescription {
     @Size(max = 200)
     private String doctorNotes;
 
-// 7. Constructors:
+// 7. 'patientId', 'doctorId' and 'issuedAt' fields:
+//    - Type: private Long / private Long / private LocalDateTime
+//    - Description:
+//      - Denormalized from the appointment when the prescription is saved, so a patient's medication history
+//        can be read from MongoDB alone through the (patientId, issuedAt desc) index.
+//      - Set by the server; values sent by the client are overwritten.
+//      - Older documents get them from PrescriptionBackfillJob.
+    private Long patientId;
+
+    private Long doctorId;
+
+    private LocalDateTime issuedAt;
+
+// 8. Constructors:
 //    - The class includes a no-argument constructor (default constructor) and a parameterized constructor that initializes the fields: patientName, medication, dosage, doctorNotes, and appointmentId.
     public  Prescription() {
     }
 
-// 8. Getters and Setters:
-//    - Standard getter and setter methods are provided for all fields: id, patientName, medication, dosage, doctorNotes, and appointmentId.
+// 9. Getters and Setters:
+//    - Standard getter and setter methods are provided for all fields: id, patientName, medication, dosage, doctorNotes, appointmentId, patientId, doctorId and issuedAt.
 //    - These methods allow access and modification of the fields of the Prescription class.
 
 
@@ -122,4 +140,28 @@ public class Prescription {
     public void setDoctorNotes(String doctorNotes) {
         this.doctorNotes = doctorNotes;
     }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
 }
@@ -0,0 +1,120 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "prescription_outbox", indexes = {
+        @Index(name = "idx_prescription_outbox_pending", columnList = "processed_at, next_attempt_at")
+})
+public class PrescriptionOutbox {
+
+// @Entity annotation:
+//    - A prescription waiting to be written to MongoDB.
+//    - The row is inserted in the same MySQL transaction that changes the appointment status, so either both
+//      happen or neither does; PrescriptionOutboxRelay then copies pending rows to MongoDB in the background.
+
+// 1. 'id' field:
+//    - Auto-generated; the relay processes entries in id order.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+// 2. 'appointmentId' field:
+//    - The appointment the prescription belongs to.
+//    - Unique, so a second prescription for the same appointment is rejected by MySQL at enqueue time.
+    @Column(nullable = false, unique = true)
+    private Long appointmentId;
+
+// 3. 'payload' field:
+//    - The prescription serialized as JSON, exactly as it will be written to MongoDB.
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+// 4. Delivery bookkeeping:
+//    - 'createdAt': when the entry was enqueued.
+//    - 'processedAt': when the relay confirmed the MongoDB write; null while pending.
+//    - 'attempts' / 'nextAttemptAt' / 'lastError': retry state with exponential backoff after failed writes.
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public PrescriptionOutbox() {
+    }
+
+    public PrescriptionOutbox(Long appointmentId, String payload) {
+        this.appointmentId = appointmentId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+// 5. recordFailure Method:
+//    - Counts a failed delivery and schedules the next attempt `backoffMillis` from now.
+    public void recordFailure(String error, long backoffMillis) {
+        this.attempts++;
+        this.lastError = truncate(error);
+        this.nextAttemptAt = LocalDateTime.now().plusNanos(backoffMillis * 1_000_000);
+    }
+
+// 6. claim Method:
+//    - Marks the entry as taken by one relay until `leaseUntil` by pushing its next attempt out, so other
+//      instances skip it; if that relay dies before recording the outcome, the entry becomes due again.
+    public void claim(LocalDateTime leaseUntil) {
+        this.nextAttemptAt = leaseUntil;
+    }
+
+// 7. reject Method:
+//    - Gives up on an entry that can never be delivered (another prescription already exists in MongoDB):
+//      it keeps `maxAttempts` and the reason, like an entry that exhausted its retries, for manual inspection.
+    public void reject(String error, int maxAttempts) {
+        this.attempts = Math.max(this.attempts, maxAttempts);
+        this.lastError = truncate(error);
+    }
+
+    private static String truncate(String error) {
+        return error == null ? null : error.substring(0, Math.min(error.length(), 500));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AdminRepository extends JpaRepository<Admin,Long> {
+public interface AdminRepository extends JpaRepository<Admin,Long>, AdminRepositoryCustom {
     boolean existsByUsername(String username);
 
     // 1. Extend JpaRepository:
@@ -22,6 +22,7 @@ public interface AdminRepository extends JpaRepository<Admin,Long> {
 //      - Parameter: String username
 //      - It will return an Admin entity that matches the provided username.
 //      - If no Admin is found with the given username, it returns null.
+//      - Implemented in AdminRepositoryImpl as a natural-id lookup (second-level cached), like existsByUsername.
     public Admin findByUsername(String username);
 
 // 3. Add @Repository annotation:
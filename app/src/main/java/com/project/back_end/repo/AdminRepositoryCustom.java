@@ -0,0 +1,23 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Admin;
+
+public interface AdminRepositoryCustom {
+
+// 1. Custom repository fragment:
+//    - Username lookups resolved through Hibernate's natural-id API, implemented in AdminRepositoryImpl, so they are
+//      answered from the second-level cache instead of a derived query. Spring Data merges this fragment into
+//      AdminRepository.
+
+//    - **findByUsername**:
+//      - The admin with this username, or null.
+//      - Return type: Admin
+//      - Parameters: String username
+    Admin findByUsername(String username);
+
+//    - **existsByUsername**:
+//      - Whether an admin with this username exists (checked by TokenService on every admin request).
+//      - Return type: boolean
+//      - Parameters: String username
+    boolean existsByUsername(String username);
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Admin;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+class AdminRepositoryImpl implements AdminRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    AdminRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Admin findByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Admin.class).load(username);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username) != null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentParticipants;
+import com.project.back_end.DTO.DoctorDailyTotal;
+import com.project.back_end.DTO.DoctorStatusCount;
+import com.project.back_end.DTO.WeekdayHourCount;
+import com.project.back_end.models.AppointmentHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface AppointmentHistoryRepository extends JpaRepository<AppointmentHistory, Long> {
+
+// 1. Extend JpaRepository:
+//    - Read-only repository over AppointmentHistory, the union of the hot `appointment` and the cold `appointment_archive` tables.
+//    - Use it for historical reads; bookings, updates and availability checks keep using AppointmentRepository.
+
+// 2. Custom Query Methods:
+
+//    - **findPatientHistoryFirstPage** / **findPatientHistoryAfter**:
+//      - Keyset pagination over a patient's history ordered by (appointmentTime, id).
+//      - The next page starts strictly after the cursor row, so no page skips over earlier rows the way OFFSET does.
+//      - The query runs against the UNION ALL derived table. MySQL (8.0.29+) pushes the patient and cursor
+//        predicates into both branches, so each branch reads only this patient's rows from
+//        (patient_id, appointment_time, id). ORDER BY and LIMIT are not pushed down: the patient's remaining history
+//        is materialized and filesorted before the page is cut. That is proportional to one patient's history, not
+//        to the tables.
+//      - Rows are projected straight into AppointmentDTO, so no entities (or the doctor's eager availableTimes) are loaded.
+//      - Return type: List<AppointmentDTO>
+//      - Parameters: Long patientId, [LocalDateTime afterTime, Long afterId], Limit limit
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE p.id = :patientId ORDER BY a.appointmentTime ASC, a.id ASC")
+    public List<AppointmentDTO> findPatientHistoryFirstPage(Long patientId, Limit limit);
+
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE p.id = :patientId AND (a.appointmentTime > :afterTime " +
+            "OR (a.appointmentTime = :afterTime AND a.id > :afterId)) ORDER BY a.appointmentTime ASC, a.id ASC")
+    public List<AppointmentDTO> findPatientHistoryAfter(Long patientId, LocalDateTime afterTime, Long afterId, Limit limit);
+
+//    - **streamPatientHistory**:
+//      - Streams the full history of a patient in (appointmentTime, id) order for the NDJSON export.
+//      - The fetch size hint makes the driver read through a forward-only cursor (useCursorFetch on the
+//        datasource URL) instead of buffering the whole result set, so heap use does not depend on the history length.
+//      - The returned Stream must be consumed inside a read-only transaction and closed by the caller.
+//      - Return type: Stream<AppointmentDTO>
+//      - Parameters: Long patientId
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE p.id = :patientId ORDER BY a.appointmentTime ASC, a.id ASC")
+    public Stream<AppointmentDTO> streamPatientHistory(Long patientId);
+
+//    - **findPatientHistoryByStatus**:
+//      - A patient's appointments with a given status, ordered by appointment time, across hot and archived rows.
+//      - Return type: List<AppointmentDTO>
+//      - Parameters: Long patientId, int status
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE p.id = :patientId AND a.status = :status ORDER BY a.appointmentTime ASC")
+    public List<AppointmentDTO> findPatientHistoryByStatus(Long patientId, int status);
+
+//    - **findPatientHistoryByDoctorName** / **findPatientHistoryByDoctorNameAndStatus**:
+//      - A patient's appointments filtered by doctor name (LIKE, case-insensitive) and optionally status.
+//      - Return type: List<AppointmentDTO>
+//      - Parameters: String doctorName, Long patientId, [int status]
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId")
+    public List<AppointmentDTO> findPatientHistoryByDoctorName(String doctorName, Long patientId);
+
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, p.email, p.phone, " +
+            "p.address, a.appointmentTime, a.status) FROM AppointmentHistory a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) AND p.id = :patientId AND a.status = :status")
+    public List<AppointmentDTO> findPatientHistoryByDoctorNameAndStatus(String doctorName, Long patientId, int status);
+
+//    - **findParticipantsByIdIn**:
+//      - Patient id, doctor id and time for a batch of appointments, hot or archived, in one query.
+//      - Used by PrescriptionBackfillJob.
+//      - Return type: List<AppointmentParticipants>
+//      - Parameters: Collection<Long> ids
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, a.appointmentTime AS appointmentTime, " +
+            "a.status AS status FROM AppointmentHistory a WHERE a.id IN :ids")
+    public List<AppointmentParticipants> findParticipantsByIdIn(Collection<Long> ids);
+
+//    - **countDailyTotalsSince**:
+//      - Appointments per (doctor, day, status) from `since` onwards, counted from both tables.
+//      - The source of truth DoctorRollupReconciler checks the doctor_daily_count rollup against.
+//      - Return type: List<DoctorDailyTotal>
+//      - Parameters: LocalDateTime since
+    @Query("SELECT a.doctor.id AS doctorId, CAST(a.appointmentTime AS LocalDate) AS appointmentDate, " +
+            "a.status AS status, COUNT(a) AS appointmentCount FROM AppointmentHistory a " +
+            "WHERE a.appointmentTime >= :since GROUP BY a.doctor.id, CAST(a.appointmentTime AS LocalDate), a.status")
+    public List<DoctorDailyTotal> countDailyTotalsSince(LocalDateTime since);
+
+//    - **countByDoctorAndStatus**:
+//      - Appointments of the given doctors in [from, to) per (doctor, status), hot or archived, in one query.
+//      - Used by the month-end summary, one partition of doctors at a time.
+//      - Return type: List<DoctorStatusCount>
+//      - Parameters: Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to
+    @Query("SELECT a.doctor.id AS doctorId, a.status AS status, COUNT(a) AS appointmentCount FROM AppointmentHistory a " +
+            "WHERE a.doctor.id IN :doctorIds AND a.appointmentTime >= :from AND a.appointmentTime < :to " +
+            "GROUP BY a.doctor.id, a.status")
+    public List<DoctorStatusCount> countByDoctorAndStatus(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to);
+
+//    - **findAllMonths**:
+//      - Every month (as yyyy * 100 + mm) that has at least one appointment, hot or archived.
+//      - Used for the first, full run of AppointmentExportJob.
+//      - Return type: List<Integer>
+//      - Parameters: none
+    @Query("SELECT DISTINCT YEAR(a.appointmentTime) * 100 + MONTH(a.appointmentTime) FROM AppointmentHistory a")
+    public List<Integer> findAllMonths();
+
+//    - **countByWeekdayAndHour**:
+//      - Booked (not cancelled) appointments of the given doctors in [from, to), grouped by day of week and hour, in one query.
+//      - Served by the (doctor_id, appointment_time) indexes of both tables.
+//      - Return type: List<WeekdayHourCount>
+//      - Parameters: Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to, int excludedStatus
+    @Query("SELECT EXTRACT(DAY OF WEEK FROM a.appointmentTime) AS dayOfWeek, EXTRACT(HOUR FROM a.appointmentTime) AS hour, " +
+            "COUNT(a) AS booked FROM AppointmentHistory a WHERE a.doctor.id IN :doctorIds " +
+            "AND a.appointmentTime >= :from AND a.appointmentTime < :to AND a.status <> :excludedStatus " +
+            "GROUP BY EXTRACT(DAY OF WEEK FROM a.appointmentTime), EXTRACT(HOUR FROM a.appointmentTime)")
+    public List<WeekdayHourCount> countByWeekdayAndHour(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to,
+                                                        int excludedStatus);
+
+//    - **streamBetween**:
+//      - Streams the doctor, time and status of every appointment in [from, to) through a forward-only cursor.
+//      - Used to load AppointmentCube in one pass; like streamPatientHistory it must be consumed and closed inside a read-only transaction.
+//      - Return type: Stream<AppointmentParticipants>
+//      - Parameters: LocalDateTime from, LocalDateTime to
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, a.appointmentTime AS appointmentTime, " +
+            "a.status AS status FROM AppointmentHistory a WHERE a.appointmentTime >= :from AND a.appointmentTime < :to")
+    public Stream<AppointmentParticipants> streamBetween(LocalDateTime from, LocalDateTime to);
+
+//    - **findDoctorBetween**:
+//      - The doctor, time and status of one doctor's appointments in [from, to); AppointmentCube reloads a doctor with it.
+//      - Served by the (doctor_id, appointment_time) indexes of both tables.
+//      - Return type: List<AppointmentParticipants>
+//      - Parameters: Long doctorId, LocalDateTime from, LocalDateTime to
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, a.appointmentTime AS appointmentTime, " +
+            "a.status AS status FROM AppointmentHistory a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+    public List<AppointmentParticipants> findDoctorBetween(Long doctorId, LocalDateTime from, LocalDateTime to);
+
+}
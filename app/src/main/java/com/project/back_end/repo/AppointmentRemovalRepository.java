@@ -0,0 +1,47 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.AppointmentRemoval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentRemovalRepository extends JpaRepository<AppointmentRemoval, Long> {
+
+// 1. Extend JpaRepository:
+//    - Access to the `appointment_removal` log; single removals are recorded with save.
+
+// 2. Custom Query Methods:
+
+//    - **recordDoctorRemoval**:
+//      - Logs one removal per month in which the doctor has appointments, hot or archived, in one INSERT ... SELECT.
+//      - Must run before the doctor's appointments are deleted, in the same transaction.
+//      - Return type: int (rows logged)
+//      - Parameters: Long doctorId, LocalDateTime removedAt
+    @Modifying
+    @Query("INSERT INTO AppointmentRemoval (appointmentTime, removedAt) SELECT MIN(a.appointmentTime), :removedAt " +
+            "FROM AppointmentHistory a WHERE a.doctor.id = :doctorId " +
+            "GROUP BY YEAR(a.appointmentTime), MONTH(a.appointmentTime)")
+    public int recordDoctorRemoval(Long doctorId, LocalDateTime removedAt);
+
+//    - **findMonthsRemovedSince**:
+//      - The months (as yyyy * 100 + mm) that lost an appointment at or after `since`.
+//      - Return type: List<Integer>
+//      - Parameters: LocalDateTime since
+    @Query("SELECT DISTINCT YEAR(r.appointmentTime) * 100 + MONTH(r.appointmentTime) FROM AppointmentRemoval r " +
+            "WHERE r.removedAt >= :since")
+    public List<Integer> findMonthsRemovedSince(LocalDateTime since);
+
+//    - **deleteRemovedBefore**:
+//      - Purges entries the export no longer needs.
+//      - Return type: int (rows deleted)
+//      - Parameters: LocalDateTime before
+    @Modifying
+    @Query("DELETE FROM AppointmentRemoval r WHERE r.removedAt < :before")
+    public int deleteRemovedBefore(LocalDateTime before);
+
+}
@@ -1,15 +1,24 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentParticipants;
 import com.project.back_end.models.Appointment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment,Long> {
@@ -88,13 +97,77 @@ public interface AppointmentRepository extends JpaRepository<Appointment,Long> {
 
 //    - **updateStatus**:
 //      - This method updates the status of a specific appointment based on its ID.
+//      - Call it through AppointmentService.changeStatus, which keeps the doctor rollup in step.
+//      - Also stamps updatedAt, since bulk updates bypass the entity's @PreUpdate callback.
 //      - Return type: void
 //      - Parameters: int status, long id
     @Modifying
     @Transactional
-    @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
+    @Query("UPDATE Appointment a SET a.status = :status, a.updatedAt = LOCAL DATETIME WHERE a.id = :id")
     public void updateStatus(Long id, int status);
 
+//    - **replaceStatus**:
+//      - Moves the given appointments from one status to another in one statement; rows in any other status are left alone.
+//      - Only for one-off data migrations: it bypasses DoctorRollupService, so the rollup has to be reconciled afterwards.
+//      - Stamps updatedAt like updateStatus.
+//      - Return type: int (rows changed)
+//      - Parameters: Collection<Long> ids, int fromStatus, int toStatus
+    @Modifying
+    @Transactional
+    @Query("UPDATE Appointment a SET a.status = :toStatus, a.updatedAt = LOCAL DATETIME " +
+            "WHERE a.id IN :ids AND a.status = :fromStatus")
+    public int replaceStatus(Collection<Long> ids, int fromStatus, int toStatus);
+
+//    - **findParticipantsById**:
+//      - Returns only the patient id, doctor id, time and status of an appointment, without loading the entity graph.
+//      - Locks the row (SELECT ... FOR UPDATE) until the transaction ends, so the status read here is still current
+//        when AppointmentService.changeStatus moves the doctor rollup from the old status to the new one.
+//      - Used to denormalize those keys onto a prescription when it is saved.
+//      - Return type: Optional<AppointmentParticipants>
+//      - Parameters: Long id
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a.id AS id, a.patient.id AS patientId, a.doctor.id AS doctorId, a.appointmentTime AS appointmentTime, " +
+            "a.status AS status FROM Appointment a WHERE a.id = :id")
+    public Optional<AppointmentParticipants> findParticipantsById(Long id);
+
+//    - **findArchivableIds**:
+//      - Returns up to `limit` ids of appointments in one of the given (finished) statuses that are older than the cutoff.
+//      - Used by AppointmentArchiver to move rows to `appointment_archive` in small batches.
+//      - Locked FOR UPDATE SKIP LOCKED, like PrescriptionOutboxRepository.findDeliverable: archivers running on several
+//        instances at the same cron claim disjoint batches instead of copying the same rows. Must run inside the
+//        batch transaction, which keeps the rows locked through the copy and the delete.
+//      - Return type: List<Long>
+//      - Parameters: Collection<Integer> statuses, LocalDateTime cutoff, Limit limit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT a.id FROM Appointment a WHERE a.status IN :statuses AND a.appointmentTime < :cutoff ORDER BY a.id")
+    public List<Long> findArchivableIds(Collection<Integer> statuses, LocalDateTime cutoff, Limit limit);
+
+//    - **deleteArchived**:
+//      - Deletes the given rows once ArchivedAppointmentRepository.copyFromAppointments has copied them, with the same re-checks.
+//      - Runs in the archiver's batch transaction, so it is not annotated with @Transactional.
+//      - Return type: int (rows deleted)
+//      - Parameters: Collection<Long> ids, Collection<Integer> statuses, LocalDateTime cutoff
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids AND a.status IN :statuses AND a.appointmentTime < :cutoff")
+    public int deleteArchived(Collection<Long> ids, Collection<Integer> statuses, LocalDateTime cutoff);
+
+//    - **findMonthsUpdatedSince**:
+//      - The months (as yyyy * 100 + mm) of appointments inserted or changed at or after `since`, via idx_appointment_updated_at.
+//      - Return type: List<Integer>
+//      - Parameters: LocalDateTime since
+    @Query("SELECT DISTINCT YEAR(a.appointmentTime) * 100 + MONTH(a.appointmentTime) FROM Appointment a WHERE a.updatedAt >= :since")
+    public List<Integer> findMonthsUpdatedSince(LocalDateTime since);
+
+//    - **findAppointmentTimesByDoctorId**:
+//      - Start times of a doctor's appointments in [from, to), as one range seek on idx_appointment_doctor_time.
+//      - Projects only the time, so availability checks do not load the appointments' eager doctor and patient.
+//      - Return type: List<LocalDateTime>
+//      - Parameters: Long doctorId, LocalDateTime from, LocalDateTime to
+    @Query("SELECT a.appointmentTime FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.appointmentTime >= :from AND a.appointmentTime < :to")
+    public List<LocalDateTime> findAppointmentTimesByDoctorId(Long doctorId, LocalDateTime from, LocalDateTime to);
+
 // 3. @Modifying and @Transactional annotations:
 //    - The @Modifying annotation is used to indicate that the method performs a modification operation (like DELETE or UPDATE).
 //    - The @Transactional annotation ensures that the modification is done within a transaction, meaning that if any exception occurs, the changes will be rolled back.
@@ -102,7 +175,4 @@ public interface AppointmentRepository extends JpaRepository<Appointment,Long> {
 // 4. @Repository annotation:
 //    - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
-    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND CAST(a.appointmentTime as LocalDate) = :date")
-    public List<Appointment> filterByDoctorIdAndDate(Long doctorId, LocalDate date);
-
 }
@@ -0,0 +1,51 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ArchivedAppointment;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+// 1. Extend JpaRepository:
+//    - CRUD access to the cold `appointment_archive` table.
+
+// 2. Custom Query Methods:
+
+//    - **copyFromAppointments**:
+//      - Copies the given rows from `appointment` into `appointment_archive` in one INSERT ... SELECT.
+//      - The status and cutoff are re-checked so a row that changed after it was selected is left in the hot table.
+//      - Must run in the same transaction as AppointmentRepository.deleteArchived for the same ids.
+//      - Return type: int (rows copied)
+//      - Parameters: Collection<Long> ids, Collection<Integer> statuses, LocalDateTime cutoff, LocalDateTime archivedAt
+    @Modifying
+    @Query(value = "INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, status, archived_at) " +
+            "SELECT id, doctor_id, patient_id, appointment_time, status, :archivedAt FROM appointment " +
+            "WHERE id IN (:ids) AND status IN (:statuses) AND appointment_time < :cutoff", nativeQuery = true)
+    public int copyFromAppointments(Collection<Long> ids, Collection<Integer> statuses,
+                                    LocalDateTime cutoff, LocalDateTime archivedAt);
+
+//    - **replaceStatus**:
+//      - Archived counterpart of AppointmentRepository.replaceStatus, for one-off data migrations.
+//      - Return type: int (rows changed)
+//      - Parameters: Collection<Long> ids, int fromStatus, int toStatus
+    @Modifying
+    @Transactional
+    @Query("UPDATE ArchivedAppointment a SET a.status = :toStatus WHERE a.id IN :ids AND a.status = :fromStatus")
+    public int replaceStatus(Collection<Long> ids, int fromStatus, int toStatus);
+
+//    - **deleteAllByDoctorId**:
+//      - Removes a doctor's archived appointments, used together with AppointmentRepository.deleteAllByDoctorId.
+//      - Return type: void
+//      - Parameters: Long doctorId
+    @Modifying
+    @Query("DELETE FROM ArchivedAppointment a WHERE a.doctor.id = :doctorId")
+    public void deleteAllByDoctorId(Long doctorId);
+
+}
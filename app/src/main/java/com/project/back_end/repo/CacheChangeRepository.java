@@ -0,0 +1,50 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.CacheChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheChangeRepository extends JpaRepository<CacheChange, Long> {
+
+// 1. Extend JpaRepository:
+//    - CRUD access to the `cache_change_log` table.
+
+// 2. Custom Query Methods:
+
+//    - **findAfter**:
+//      - Changes recorded after the poller's cursor, in id order.
+//      - Return type: List<CacheChange>
+//      - Parameters: long cursor, Limit limit
+    @Query("SELECT c FROM CacheChange c WHERE c.id > :cursor ORDER BY c.id")
+    public List<CacheChange> findAfter(long cursor, Limit limit);
+
+//    - **findByIds**:
+//      - Re-reads ids the poller skipped because their transaction had not committed yet.
+//      - Return type: List<CacheChange>
+//      - Parameters: Collection<Long> ids
+    @Query("SELECT c FROM CacheChange c WHERE c.id IN :ids ORDER BY c.id")
+    public List<CacheChange> findByIds(Collection<Long> ids);
+
+//    - **findLatestId**:
+//      - The highest id recorded so far (0 for an empty table); where a starting poller begins.
+//      - Return type: long
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheChange c")
+    public long findLatestId();
+
+//    - **deleteChangedBefore**:
+//      - Purges changes every instance has long since applied.
+//      - Return type: int (rows deleted)
+//      - Parameters: LocalDateTime cutoff
+    @Modifying
+    @Query("DELETE FROM CacheChange c WHERE c.changedAt < :cutoff")
+    public int deleteChangedBefore(LocalDateTime cutoff);
+
+}
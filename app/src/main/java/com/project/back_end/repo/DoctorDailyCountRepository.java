@@ -0,0 +1,77 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.DoctorPatientCount;
+import com.project.back_end.models.DoctorDailyCount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DoctorDailyCountRepository extends JpaRepository<DoctorDailyCount, DoctorDailyCount.Key> {
+
+// 1. Extend JpaRepository:
+//    - Access to the doctor_daily_count rollup, keyed by (doctorId, appointmentDate, status).
+
+// 2. Custom Query Methods:
+
+//    - **increment**:
+//      - Adds `delta` (which may be negative) to one rollup cell, creating it if needed, in a single atomic statement.
+//      - Concurrent bookings for the same doctor and day therefore never lose an update.
+//      - Must run inside the transaction that changes the appointment.
+//      - Return type: void
+//      - Parameters: Long doctorId, LocalDate appointmentDate, int status, long delta
+    @Modifying
+    @Query(value = "INSERT INTO doctor_daily_count (doctor_id, appointment_date, status, appointment_count) " +
+            "VALUES (:doctorId, :appointmentDate, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + :delta", nativeQuery = true)
+    public void increment(Long doctorId, LocalDate appointmentDate, int status, long delta);
+
+//    - **put**:
+//      - Sets one rollup cell to `count`, creating it if needed; used only to seed an empty rollup.
+//      - Unlike increment, running it twice with the same count leaves the same value.
+//      - Return type: void
+//      - Parameters: Long doctorId, LocalDate appointmentDate, int status, long count
+    @Modifying
+    @Query(value = "INSERT INTO doctor_daily_count (doctor_id, appointment_date, status, appointment_count) " +
+            "VALUES (:doctorId, :appointmentDate, :status, :count) " +
+            "ON DUPLICATE KEY UPDATE appointment_count = :count", nativeQuery = true)
+    public void put(Long doctorId, LocalDate appointmentDate, int status, long count);
+
+//    - **findTopDoctors** / **findTopDoctorsByStatus**:
+//      - Doctors ranked by appointments in [from, to] (inclusive dates), optionally only in the given statuses.
+//      - Reads the rollup only; at most (doctors x days x statuses) rows are summed.
+//      - Return type: List<DoctorPatientCount>
+//      - Parameters: LocalDate from, LocalDate to, [Collection<Integer> statuses], Limit limit
+    @Query("SELECT new com.project.back_end.DTO.DoctorPatientCount(d.id, d.name, SUM(c.appointmentCount)) " +
+            "FROM DoctorDailyCount c JOIN Doctor d ON d.id = c.doctorId " +
+            "WHERE c.appointmentDate BETWEEN :from AND :to " +
+            "GROUP BY d.id, d.name HAVING SUM(c.appointmentCount) > 0 ORDER BY SUM(c.appointmentCount) DESC, d.id ASC")
+    public List<DoctorPatientCount> findTopDoctors(LocalDate from, LocalDate to, Limit limit);
+
+    @Query("SELECT new com.project.back_end.DTO.DoctorPatientCount(d.id, d.name, SUM(c.appointmentCount)) " +
+            "FROM DoctorDailyCount c JOIN Doctor d ON d.id = c.doctorId " +
+            "WHERE c.appointmentDate BETWEEN :from AND :to AND c.status IN :statuses " +
+            "GROUP BY d.id, d.name HAVING SUM(c.appointmentCount) > 0 ORDER BY SUM(c.appointmentCount) DESC, d.id ASC")
+    public List<DoctorPatientCount> findTopDoctorsByStatus(LocalDate from, LocalDate to, Collection<Integer> statuses, Limit limit);
+
+//    - **findByAppointmentDateGreaterThanEqual**:
+//      - The rollup cells from a day onwards, for reconciliation.
+//      - Return type: List<DoctorDailyCount>
+//      - Parameters: LocalDate since
+    public List<DoctorDailyCount> findByAppointmentDateGreaterThanEqual(LocalDate since);
+
+//    - **deleteAllByDoctorId**:
+//      - Removes a deleted doctor's cells, used together with the appointment deletes in DoctorService.deleteDoctor.
+//      - Return type: void
+//      - Parameters: Long doctorId
+    @Modifying
+    @Query("DELETE FROM DoctorDailyCount c WHERE c.doctorId = :doctorId")
+    public void deleteAllByDoctorId(Long doctorId);
+
+}
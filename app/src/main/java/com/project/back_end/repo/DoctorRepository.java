@@ -1,5 +1,7 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.DoctorMonthlySummary;
+import com.project.back_end.DTO.DoctorSlot;
 import com.project.back_end.models.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor,Long> {
+public interface DoctorRepository extends JpaRepository<Doctor,Long>, DoctorRepositoryCustom {
     boolean existsByEmail(String email);
     // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Doctor, Long>, which gives it basic CRUD functionality.
@@ -21,6 +23,7 @@ public interface DoctorRepository extends JpaRepository<Doctor,Long> {
 
 //    - **findByEmail**:
 //      - This method retrieves a Doctor by their email.
+//      - Implemented in DoctorRepositoryImpl as a natural-id lookup (second-level cached), like existsByEmail.
 //      - Return type: Doctor
 //      - Parameters: String email
     public Doctor findByEmail(String email);
@@ -49,6 +52,37 @@ public interface DoctorRepository extends JpaRepository<Doctor,Long> {
     @Query("SELECT d FROM Doctor d WHERE LOWER(d.specialty) = LOWER(:specialty)")
     public List<Doctor> findBySpecialtyIgnoreCase(String specialty);
 
+//    - **findAllSlots**:
+//      - Every doctor's available time slots, one row per (doctor, slot), in a single query.
+//      - Return type: List<DoctorSlot>
+//      - Parameters: none
+    @Query("SELECT d.id AS doctorId, t AS slot FROM Doctor d JOIN d.availableTimes t")
+    public List<DoctorSlot> findAllSlots();
+
+//    - **findSlotsByDoctorId** / **findSlotsBySpecialtyIgnoreCase**:
+//      - The same projection for one doctor, or for every doctor of a specialty (case-insensitive).
+//      - Return type: List<DoctorSlot>
+//      - Parameters: Long doctorId / String specialty
+    @Query("SELECT d.id AS doctorId, t AS slot FROM Doctor d JOIN d.availableTimes t WHERE d.id = :doctorId")
+    public List<DoctorSlot> findSlotsByDoctorId(Long doctorId);
+
+    @Query("SELECT d.id AS doctorId, t AS slot FROM Doctor d JOIN d.availableTimes t WHERE LOWER(d.specialty) = LOWER(:specialty)")
+    public List<DoctorSlot> findSlotsBySpecialtyIgnoreCase(String specialty);
+
+//    - **findIdsBySpecialtyIgnoreCase**:
+//      - Ids of every doctor of a specialty, including doctors without any available time.
+//      - Return type: List<Long>
+//      - Parameters: String specialty
+    @Query("SELECT d.id FROM Doctor d WHERE LOWER(d.specialty) = LOWER(:specialty)")
+    public List<Long> findIdsBySpecialtyIgnoreCase(String specialty);
+
+//    - **findAllForMonthlySummary**:
+//      - Every doctor as an empty DoctorMonthlySummary row (id and name only), ordered by id.
+//      - Return type: List<DoctorMonthlySummary>
+//      - Parameters: none
+    @Query("SELECT new com.project.back_end.DTO.DoctorMonthlySummary(d.id, d.name) FROM Doctor d ORDER BY d.id")
+    public List<DoctorMonthlySummary> findAllForMonthlySummary();
+
 // 3. @Repository annotation:
 //    - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
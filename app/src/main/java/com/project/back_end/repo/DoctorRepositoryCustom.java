@@ -0,0 +1,23 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+
+public interface DoctorRepositoryCustom {
+
+// 1. Custom repository fragment:
+//    - Email lookups resolved through Hibernate's natural-id API, implemented in DoctorRepositoryImpl, so they are
+//      answered from the second-level cache instead of a derived query. Spring Data merges this fragment into
+//      DoctorRepository.
+
+//    - **findByEmail**:
+//      - The doctor with this email, or null.
+//      - Return type: Doctor
+//      - Parameters: String email
+    Doctor findByEmail(String email);
+
+//    - **existsByEmail**:
+//      - Whether a doctor with this email exists (checked by TokenService on every doctor request).
+//      - Return type: boolean
+//      - Parameters: String email
+    boolean existsByEmail(String email);
+}
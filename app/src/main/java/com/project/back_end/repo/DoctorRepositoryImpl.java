@@ -0,0 +1,29 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+class DoctorRepositoryImpl implements DoctorRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    DoctorRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Doctor findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Doctor.class).load(email);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email) != null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.PrescriptionOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PrescriptionOutboxRepository extends JpaRepository<PrescriptionOutbox, Long> {
+
+// 1. Extend JpaRepository:
+//    - CRUD access to the `prescription_outbox` table.
+
+// 2. Custom Query Methods:
+
+//    - **findDeliverable**:
+//      - Pending entries whose next attempt is due and that have not used up their retries, oldest first.
+//      - Locked FOR UPDATE SKIP LOCKED, so relays on several instances claim disjoint batches instead of waiting
+//        for (or delivering) each other's rows; must run inside the claiming transaction.
+//      - Return type: List<PrescriptionOutbox>
+//      - Parameters: LocalDateTime now, int maxAttempts, Limit limit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT o FROM PrescriptionOutbox o WHERE o.processedAt IS NULL AND o.nextAttemptAt <= :now " +
+            "AND o.attempts < :maxAttempts ORDER BY o.id")
+    public List<PrescriptionOutbox> findDeliverable(LocalDateTime now, int maxAttempts, Limit limit);
+
+//    - **findPendingByAppointmentId** / **findPendingByAppointmentIds**:
+//      - Entries not yet written to MongoDB, so reads right after a save still see the prescription.
+//      - Rejected entries and entries that used up their retries are left out: they will never reach MongoDB.
+//      - Return type: Optional<PrescriptionOutbox> / List<PrescriptionOutbox>
+//      - Parameters: Long appointmentId / Collection<Long> appointmentIds, int maxAttempts
+    @Query("SELECT o FROM PrescriptionOutbox o WHERE o.appointmentId = :appointmentId AND o.processedAt IS NULL " +
+            "AND o.attempts < :maxAttempts")
+    public Optional<PrescriptionOutbox> findPendingByAppointmentId(Long appointmentId, int maxAttempts);
+
+    @Query("SELECT o FROM PrescriptionOutbox o WHERE o.appointmentId IN :appointmentIds AND o.processedAt IS NULL " +
+            "AND o.attempts < :maxAttempts")
+    public List<PrescriptionOutbox> findPendingByAppointmentIds(Collection<Long> appointmentIds, int maxAttempts);
+
+//    - **markProcessed**:
+//      - Marks delivered entries in one statement.
+//      - Return type: int (rows updated)
+//      - Parameters: Collection<Long> ids, LocalDateTime processedAt
+    @Modifying
+    @Query("UPDATE PrescriptionOutbox o SET o.processedAt = :processedAt WHERE o.id IN :ids")
+    public int markProcessed(Collection<Long> ids, LocalDateTime processedAt);
+
+//    - **deleteProcessedBefore**:
+//      - Purges delivered entries once they are older than the retention period.
+//      - Return type: int (rows deleted)
+//      - Parameters: LocalDateTime cutoff
+    @Modifying
+    @Query("DELETE FROM PrescriptionOutbox o WHERE o.processedAt IS NOT NULL AND o.processedAt < :cutoff")
+    public int deleteProcessedBefore(LocalDateTime cutoff);
+
+}
@@ -0,0 +1,36 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+
+// Query builders shared by the blocking and the reactive prescription repositories, so both run exactly the same MongoDB queries.
+final class PrescriptionQueries {
+
+    private PrescriptionQueries() {
+    }
+
+    static Query byAppointmentIds(Collection<Long> appointmentIds, Collection<String> fields) {
+        Query query = new Query(Criteria.where("appointmentId").in(appointmentIds));
+        if (fields != null && !fields.isEmpty()) {
+            query.fields().include("appointmentId");
+            fields.forEach(field -> query.fields().include(field));
+        }
+        return query;
+    }
+
+    static Query patientHistory(Long patientId, PrescriptionCursor after, int limit) {
+        Criteria criteria = Criteria.where("patientId").is(patientId);
+        if (after != null) {
+            criteria.orOperator(
+                    Criteria.where("issuedAt").lt(after.getIssuedAt()),
+                    Criteria.where("issuedAt").is(after.getIssuedAt()).and("id").lt(after.getId()));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "issuedAt", "id"))
+                .limit(limit);
+    }
+}
@@ -4,10 +4,10 @@ import com.project.back_end.models.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PrescriptionRepository extends MongoRepository<Prescription,String> {
+public interface PrescriptionRepository extends MongoRepository<Prescription,String>, PrescriptionRepositoryCustom {
 // 1. Extend MongoRepository:
 //    - The repository extends MongoRepository<Prescription, String>, which provides basic CRUD functionality for MongoDB.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
@@ -17,12 +17,19 @@ public interface PrescriptionRepository extends MongoRepository<Prescription,Str
 
 // 2. Custom Query Method:
 
-//    - **findByAppointmentId**:
-//      - This method retrieves a list of prescriptions associated with a specific appointment.
-//      - Return type: List<Prescription>
+//    - **findOneByAppointmentId**:
+//      - This method retrieves the prescription associated with a specific appointment.
+//      - Return type: Optional<Prescription>
 //      - Parameters: Long appointmentId
-//      - MongoRepository automatically derives the query from the method name, in this case, it will find prescriptions by the appointment ID.
-    public List<Prescription> findByAppointmentId(Long appointmentId);
+//      - MongoRepository automatically derives the query from the method name; it is served by the unique
+//        appointmentId index created by MongoIndexInitializer, and there is at most one match.
+    public Optional<Prescription> findOneByAppointmentId(Long appointmentId);
+
+//    - **findByAppointmentIds**:
+//      - Inherited from PrescriptionRepositoryCustom: one `$in` query for a batch of appointments, with optional field projection.
+
+//    - **findPatientHistory**:
+//      - Inherited from PrescriptionRepositoryCustom: keyset-paginated medication history of a patient, newest first.
 
 
 }
@@ -0,0 +1,37 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface PrescriptionRepositoryCustom {
+
+// 1. Custom repository fragment:
+//    - Queries that cannot be derived from a method name, implemented with MongoTemplate in PrescriptionRepositoryImpl.
+//    - Spring Data merges this fragment into PrescriptionRepository.
+
+//    - **findByAppointmentIds**:
+//      - Resolves the prescriptions of many appointments with a single `$in` query on the unique appointmentId index.
+//      - When `fields` is non-empty only those fields (plus appointmentId) are returned; the rest stay null.
+//      - Return type: List<Prescription>
+//      - Parameters: Collection<Long> appointmentIds, Collection<String> fields
+    List<Prescription> findByAppointmentIds(Collection<Long> appointmentIds, Collection<String> fields);
+
+//    - **findPatientHistory**:
+//      - A patient's prescriptions newest first, starting after the cursor (or from the newest when it is null).
+//      - One query on the (patientId, issuedAt desc, _id desc) index.
+//      - Return type: List<Prescription>
+//      - Parameters: Long patientId, PrescriptionCursor after, int limit
+    List<Prescription> findPatientHistory(Long patientId, PrescriptionCursor after, int limit);
+
+//    - **countByDoctorIds**:
+//      - Prescriptions issued by each of the given doctors in [from, to), as one aggregation on the (doctorId, issuedAt) index.
+//      - Doctors without prescriptions are missing from the map.
+//      - Return type: Map<Long, Long>
+//      - Parameters: Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to
+    Map<Long, Long> countByDoctorIds(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to);
+}
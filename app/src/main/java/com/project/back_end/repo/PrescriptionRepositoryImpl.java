@@ -0,0 +1,45 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class PrescriptionRepositoryImpl implements PrescriptionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    PrescriptionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Prescription> findByAppointmentIds(Collection<Long> appointmentIds, Collection<String> fields) {
+        return mongoTemplate.find(PrescriptionQueries.byAppointmentIds(appointmentIds, fields), Prescription.class);
+    }
+
+    @Override
+    public List<Prescription> findPatientHistory(Long patientId, PrescriptionCursor after, int limit) {
+        return mongoTemplate.find(PrescriptionQueries.patientHistory(patientId, after, limit), Prescription.class);
+    }
+
+    @Override
+    public Map<Long, Long> countByDoctorIds(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("doctorId").in(doctorIds).and("issuedAt").gte(from).lt(to)),
+                Aggregation.group("doctorId").count().as("count"));
+        Map<Long, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Prescription.class, Document.class)) {
+            counts.put(((Number) row.get("_id")).longValue(), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Prescription;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactivePrescriptionRepository extends ReactiveMongoRepository<Prescription, String>, ReactivePrescriptionRepositoryCustom {
+// 1. Extend ReactiveMongoRepository:
+//    - Same collection and queries as PrescriptionRepository, served by the reactive MongoDB driver.
+//    - Every method returns a Mono or Flux and never blocks the calling thread; results arrive on the driver's threads.
+
+// 2. Custom Query Method:
+
+//    - **findOneByAppointmentId**:
+//      - Emits the prescription of an appointment, or completes empty when there is none.
+//      - Return type: Mono<Prescription>
+//      - Parameters: Long appointmentId
+    public Mono<Prescription> findOneByAppointmentId(Long appointmentId);
+
+//    - **findByAppointmentIds** / **findPatientHistory**:
+//      - Inherited from ReactivePrescriptionRepositoryCustom.
+
+
+}
@@ -0,0 +1,26 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ReactivePrescriptionRepositoryCustom {
+
+// 1. Custom repository fragment:
+//    - Non-blocking counterpart of PrescriptionRepositoryCustom, implemented with ReactiveMongoTemplate in ReactivePrescriptionRepositoryImpl.
+//    - Both implementations build their queries with PrescriptionQueries, so they hit the same indexes.
+
+//    - **findByAppointmentIds**:
+//      - Emits the prescriptions of many appointments from a single `$in` query, with optional field projection.
+//      - Return type: Flux<Prescription>
+//      - Parameters: Collection<Long> appointmentIds, Collection<String> fields
+    Flux<Prescription> findByAppointmentIds(Collection<Long> appointmentIds, Collection<String> fields);
+
+//    - **findPatientHistory**:
+//      - Emits a patient's prescriptions newest first, starting after the cursor (or from the newest when it is null).
+//      - Return type: Flux<Prescription>
+//      - Parameters: Long patientId, PrescriptionCursor after, int limit
+    Flux<Prescription> findPatientHistory(Long patientId, PrescriptionCursor after, int limit);
+}
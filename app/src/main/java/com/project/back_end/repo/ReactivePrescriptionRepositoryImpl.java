@@ -0,0 +1,27 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+class ReactivePrescriptionRepositoryImpl implements ReactivePrescriptionRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    ReactivePrescriptionRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Flux<Prescription> findByAppointmentIds(Collection<Long> appointmentIds, Collection<String> fields) {
+        return reactiveMongoTemplate.find(PrescriptionQueries.byAppointmentIds(appointmentIds, fields), Prescription.class);
+    }
+
+    @Override
+    public Flux<Prescription> findPatientHistory(Long patientId, PrescriptionCursor after, int limit) {
+        return reactiveMongoTemplate.find(PrescriptionQueries.patientHistory(patientId, after, limit), Prescription.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "appointment.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentArchiver {
+
+// 1. **Purpose**:
+//    - Moves completed and cancelled appointments older than the configured horizon from `appointment` to `appointment_archive`.
+//    - Keeps the hot table (and its indexes) close to the active working set; historical reads see both tables through AppointmentHistory.
+
+// 2. **Batching**:
+//    - Each batch selects at most `batch-size` ids, copies them with one INSERT ... SELECT and deletes them by primary key,
+//      all in its own short transaction, so row locks are held only for one small batch at a time.
+//    - An optional pause between batches leaves room for booking traffic while a large backlog drains.
+//    - The ids are selected FOR UPDATE SKIP LOCKED, so when every instance runs the job at the same time each batch is
+//      claimed by exactly one of them; the others skip to rows nobody holds, or find nothing left.
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private static final List<Integer> ARCHIVABLE_STATUSES =
+            List.of(Appointment.STATUS_COMPLETED, Appointment.STATUS_CANCELLED);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${appointment.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${appointment.archive.pause-ms:50}")
+    private long pauseMillis;
+
+    public AppointmentArchiver(AppointmentRepository appointmentRepository,
+                               ArchivedAppointmentRepository archivedAppointmentRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+// 3. **archive Method**:
+//    - Runs on the `appointment.archive.cron` schedule and drains everything that is past the horizon.
+//    - The cutoff is fixed at the start of the run so the loop always terminates.
+//    - Returns the number of rows moved.
+    @Scheduled(cron = "${appointment.archive.cron:0 30 2 * * *}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+            if (moved > 0 && pauseMillis > 0) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} appointments older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+// 4. **archiveBatch Method**:
+//    - Copies and deletes one batch inside a single transaction.
+//    - If the copy and delete counts disagree the batch is rolled back, so a row is never lost or duplicated.
+    int archiveBatch(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = appointmentRepository.findArchivableIds(ARCHIVABLE_STATUSES, cutoff, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int copied = archivedAppointmentRepository.copyFromAppointments(ids, ARCHIVABLE_STATUSES, cutoff, LocalDateTime.now());
+            int deleted = appointmentRepository.deleteArchived(ids, ARCHIVABLE_STATUSES, cutoff);
+            if (copied != deleted) {
+                status.setRollbackOnly();
+                log.warn("Archive batch rolled back: copied {} but deleted {} appointments", copied, deleted);
+                return 0;
+            }
+            // Rows that changed after being selected were skipped; report the full batch so the loop continues
+            return ids.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+
+public class AppointmentChangeEvent {
+
+// 1. Purpose:
+//    - Published by DoctorRollupService for every change to the appointment counts of a (doctor, time, status):
+//      +1 when an appointment enters that state, -1 when it leaves it.
+//    - In-memory consumers such as AppointmentCube listen after commit, so rolled-back changes are never seen.
+
+    private final Long doctorId;
+    private final LocalDateTime appointmentTime;
+    private final int status;
+    private final int delta;
+
+    public AppointmentChangeEvent(Long doctorId, LocalDateTime appointmentTime, int status, int delta) {
+        this.doctorId = doctorId;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+        this.delta = delta;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
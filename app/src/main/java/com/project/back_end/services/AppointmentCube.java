@@ -0,0 +1,414 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentParticipants;
+import com.project.back_end.DTO.DoctorSlot;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.CacheChange;
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "analytics.cube.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentCube {
+
+// 1. **Purpose**:
+//    - Keeps appointment counts per doctor x day x hour x status in memory, so the admin dashboard's operational
+//      metrics (utilization, no-show rate, busiest hours) are answered by summing a few hundred ints instead of
+//      running GROUP BY queries against the live appointment table.
+
+// 2. **Layout and memory**:
+//    - One AtomicIntegerArray (a plain int[] with atomic updates) per doctor, indexed by (day slot, hour, status).
+//    - Only a rolling window of days is kept: `past-days` before today, today and `future-days` ahead. Day slots are
+//      reused as the window moves; a slot is cleared the first time a newer day lands in it.
+//    - Per doctor: (past-days + future-days + 1) x 24 x 3 x 4 bytes. With the defaults (90 + 30 + 1 days) that is
+//      ~34 KB, i.e. ~34 MB for 1000 doctors. The current size is published as the `analytics.cube.memory` gauge.
+
+// 3. **Loading and updates**:
+//    - Built with one streaming pass over the window when the application starts, and rebuilt nightly.
+//    - Afterwards it follows AppointmentChangeEvent / DoctorRemovedEvent from DoctorRollupService after each commit.
+//    - Changes made on other instances arrive as CacheInvalidationEvents from CacheChangePoller; the doctor they touch
+//      is reloaded from the database (one indexed range read) and replaces its counters. The poller also delivers this
+//      instance's own changes; a reload replaces rather than adds, so that only repeats work. A local event that lands
+//      after a reload which already read its commit counts that change twice until the doctor's next reload or rebuild.
+//    - While a rebuild runs, events go to both the live and the new grid. A change that commits in the few
+//      milliseconds between the start of the rebuild and the start of its read can be counted twice; the next
+//      rebuild corrects it. The figures are operational metrics, not accounting.
+//    - Offered hours come from the doctors' availableTimes, refreshed every `schedule-refresh-ms`.
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentCube.class);
+
+    private static final int HOURS = 24;
+    private static final int STATUSES = 3;
+
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+    private final DoctorRepository doctorRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pastDays;
+    private final int futureDays;
+    private final int windowDays;
+
+    private volatile Grid grid = new Grid();
+    private volatile Grid building;
+    private volatile Map<Long, Integer> hourMasks = Map.of();
+    private volatile LocalDateTime loadedAt;
+
+    public AppointmentCube(AppointmentHistoryRepository appointmentHistoryRepository,
+                           DoctorRepository doctorRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${analytics.cube.past-days:90}") int pastDays,
+                           @Value("${analytics.cube.future-days:30}") int futureDays) {
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+        this.doctorRepository = doctorRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+        this.windowDays = pastDays + futureDays + 1;
+
+        Gauge.builder("analytics.cube.memory", this, cube -> (double) cube.grid.cells.size() * cube.bytesPerDoctor())
+                .description("Heap used by the appointment cube counters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+// 4. **rebuild Method**:
+//    - Loads the whole window into a fresh grid and swaps it in; the old grid keeps serving reads meanwhile.
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Could not load the appointment cube", e);
+        }
+    }
+
+    @Scheduled(cron = "${analytics.cube.rebuild-cron:0 0 3 * * *}")
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        Grid fresh = new Grid();
+        building = fresh;
+        try {
+            refreshSchedules();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<AppointmentParticipants> rows = appointmentHistoryRepository.streamBetween(
+                        today.minusDays(pastDays).atStartOfDay(), today.plusDays(futureDays + 1).atStartOfDay())) {
+                    rows.forEach(row -> fresh.add(row.getDoctorId(), row.getAppointmentTime(), row.getStatus(), 1, today));
+                }
+            });
+            grid = fresh;
+            loadedAt = LocalDateTime.now();
+        } finally {
+            building = null;
+        }
+        log.info("Appointment cube loaded: {} doctors, {} bytes", fresh.cells.size(), fresh.cells.size() * bytesPerDoctor());
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.cube.schedule-refresh-ms:900000}",
+            initialDelayString = "${analytics.cube.schedule-refresh-ms:900000}")
+    public void refreshSchedules() {
+        Map<Long, Integer> masks = new HashMap<>();
+        for (DoctorSlot slot : doctorRepository.findAllSlots()) {
+            masks.merge(slot.getDoctorId(), DoctorSlots.hourMask(List.of(slot.getSlot())), (a, b) -> a | b);
+        }
+        hourMasks = masks;
+    }
+
+    // Offered hours of one doctor, after its availableTimes changed or it was removed
+    private void refreshSchedule(Long doctorId) {
+        Map<Long, Integer> masks = new HashMap<>(hourMasks);
+        List<String> slots = doctorRepository.findSlotsByDoctorId(doctorId).stream().map(DoctorSlot::getSlot).toList();
+        if (slots.isEmpty()) {
+            masks.remove(doctorId);
+        } else {
+            masks.put(doctorId, DoctorSlots.hourMask(slots));
+        }
+        hourMasks = masks;
+    }
+
+// 5. **Event listeners**:
+//    - Run after the writing transaction commits, on the thread that committed it; each update is one atomic add.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppointmentChange(AppointmentChangeEvent event) {
+        LocalDate today = LocalDate.now();
+        grid.add(event.getDoctorId(), event.getAppointmentTime(), event.getStatus(), event.getDelta(), today);
+        Grid next = building;
+        if (next != null) {
+            next.add(event.getDoctorId(), event.getAppointmentTime(), event.getStatus(), event.getDelta(), today);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDoctorRemoved(DoctorRemovedEvent event) {
+        grid.cells.remove(event.getDoctorId());
+        Grid next = building;
+        if (next != null) {
+            next.cells.remove(event.getDoctorId());
+        }
+    }
+
+    // Changes from any instance, published by CacheChangePoller on its own thread
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        Long doctorId = event.getDoctorId();
+        if (doctorId == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<AppointmentParticipants> rows = readOnlyTransaction.execute(status -> appointmentHistoryRepository.findDoctorBetween(
+                doctorId, today.minusDays(pastDays).atStartOfDay(), today.plusDays(futureDays + 1).atStartOfDay()));
+        grid.replace(doctorId, rows, today);
+        Grid next = building;
+        if (next != null) {
+            next.replace(doctorId, rows, today);
+        }
+        if (event.getKind() == CacheChange.Kind.DOCTOR) {
+            refreshSchedule(doctorId);
+        }
+    }
+
+// 6. **utilization Method**:
+//    - Per doctor: booked (scheduled or completed) appointments against offered hourly slots over the range.
+    public ResponseEntity<Map<String, Object>> utilization(LocalDate from, LocalDate to, Long doctorId) {
+        Grid current = grid;
+        Map<String, Object> response = header(from, to);
+        if (response.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        LocalDate start = (LocalDate) response.get("from");
+        LocalDate end = (LocalDate) response.get("to");
+        long days = end.toEpochDay() - start.toEpochDay() + 1;
+
+        List<Map<String, Object>> doctors = new ArrayList<>();
+        for (Long id : doctorIds(current, doctorId)) {
+            AtomicIntegerArray cells = current.cells.get(id);
+            long booked = 0;
+            if (cells != null) {
+                for (long day = start.toEpochDay(); day <= end.toEpochDay(); day++) {
+                    for (int hour = 0; hour < HOURS; hour++) {
+                        booked += current.count(cells, day, hour, Appointment.STATUS_SCHEDULED)
+                                + current.count(cells, day, hour, Appointment.STATUS_COMPLETED);
+                    }
+                }
+            }
+            long offered = Integer.bitCount(hourMasks.getOrDefault(id, 0)) * days;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("doctorId", id);
+            row.put("booked", booked);
+            row.put("offered", offered);
+            row.put("utilization", offered == 0 ? null : (double) booked / offered);
+            doctors.add(row);
+        }
+        response.put("doctors", doctors);
+        return ResponseEntity.ok(response);
+    }
+
+// 7. **noShowRate Method**:
+//    - An appointment whose hour has passed but is still `scheduled` (never completed or cancelled) counts as a no-show.
+//    - Rate = no-shows / (no-shows + completed), over the past part of the range; null when there is nothing to rate.
+    public ResponseEntity<Map<String, Object>> noShowRate(LocalDate from, LocalDate to, Long doctorId) {
+        Grid current = grid;
+        Map<String, Object> response = header(from, to);
+        if (response.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        LocalDate start = (LocalDate) response.get("from");
+        LocalDate end = (LocalDate) response.get("to");
+        LocalDateTime now = LocalDateTime.now();
+        long today = now.toLocalDate().toEpochDay();
+
+        long noShows = 0;
+        long completed = 0;
+        for (Long id : doctorIds(current, doctorId)) {
+            AtomicIntegerArray cells = current.cells.get(id);
+            if (cells == null) {
+                continue;
+            }
+            for (long day = start.toEpochDay(); day <= Math.min(end.toEpochDay(), today); day++) {
+                int hours = day < today ? HOURS : now.getHour();
+                for (int hour = 0; hour < hours; hour++) {
+                    noShows += current.count(cells, day, hour, Appointment.STATUS_SCHEDULED);
+                    completed += current.count(cells, day, hour, Appointment.STATUS_COMPLETED);
+                }
+            }
+        }
+        response.put("noShows", noShows);
+        response.put("completed", completed);
+        response.put("noShowRate", noShows + completed == 0 ? null : (double) noShows / (noShows + completed));
+        return ResponseEntity.ok(response);
+    }
+
+// 8. **busiestHours Method**:
+//    - Hours of the day ranked by booked (scheduled or completed) appointments over the range.
+    public ResponseEntity<Map<String, Object>> busiestHours(LocalDate from, LocalDate to, Long doctorId, int limit) {
+        Grid current = grid;
+        Map<String, Object> response = header(from, to);
+        if (response.containsKey("error")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        LocalDate start = (LocalDate) response.get("from");
+        LocalDate end = (LocalDate) response.get("to");
+
+        long[] perHour = new long[HOURS];
+        for (Long id : doctorIds(current, doctorId)) {
+            AtomicIntegerArray cells = current.cells.get(id);
+            if (cells == null) {
+                continue;
+            }
+            for (long day = start.toEpochDay(); day <= end.toEpochDay(); day++) {
+                for (int hour = 0; hour < HOURS; hour++) {
+                    perHour[hour] += current.count(cells, day, hour, Appointment.STATUS_SCHEDULED)
+                            + current.count(cells, day, hour, Appointment.STATUS_COMPLETED);
+                }
+            }
+        }
+
+        List<Map<String, Object>> hours = new ArrayList<>();
+        Integer[] order = new Integer[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            order[hour] = hour;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(perHour[b], perHour[a]));
+        for (int i = 0; i < Math.min(Math.max(limit, 1), HOURS); i++) {
+            hours.add(Map.of("hour", order[i], "appointments", perHour[order[i]]));
+        }
+        response.put("hours", hours);
+        return ResponseEntity.ok(response);
+    }
+
+    // Clamps the requested range to the window; defaults to the last 30 days
+    private Map<String, Object> header(LocalDate from, LocalDate to) {
+        Map<String, Object> response = new HashMap<>();
+        if (loadedAt == null) {
+            response.put("error", "Analytics are still loading");
+            return response;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate first = today.minusDays(pastDays);
+        LocalDate last = today.plusDays(futureDays);
+        LocalDate start = from == null ? today.minusDays(29) : from;
+        LocalDate end = to == null ? today : to;
+        start = start.isBefore(first) ? first : start;
+        end = end.isAfter(last) ? last : end;
+        response.put("from", start);
+        response.put("to", end.isBefore(start) ? start.minusDays(1) : end);
+        response.put("loadedAt", loadedAt);
+        return response;
+    }
+
+    private Collection<Long> doctorIds(Grid current, Long doctorId) {
+        if (doctorId != null) {
+            return List.of(doctorId);
+        }
+        Set<Long> ids = new TreeSet<>(current.cells.keySet());
+        ids.addAll(hourMasks.keySet());
+        return ids;
+    }
+
+    private long bytesPerDoctor() {
+        return (long) windowDays * HOURS * STATUSES * Integer.BYTES;
+    }
+
+    private final class Grid {
+
+        private final ConcurrentHashMap<Long, AtomicIntegerArray> cells = new ConcurrentHashMap<>();
+        // The epoch day each slot currently holds
+        private final AtomicLongArray slotDay = new AtomicLongArray(windowDays);
+
+        private Grid() {
+            for (int slot = 0; slot < windowDays; slot++) {
+                slotDay.set(slot, Long.MIN_VALUE);
+            }
+        }
+
+        void add(Long doctorId, LocalDateTime appointmentTime, Integer status, int delta, LocalDate today) {
+            if (doctorId == null) {
+                return;
+            }
+            int index = cellIndex(appointmentTime, status, today);
+            if (index >= 0) {
+                cells.computeIfAbsent(doctorId, id -> new AtomicIntegerArray(windowDays * HOURS * STATUSES))
+                        .addAndGet(index, delta);
+            }
+        }
+
+        // Swaps in counters built from the doctor's current rows; a doctor without rows is dropped
+        void replace(Long doctorId, List<AppointmentParticipants> rows, LocalDate today) {
+            if (rows.isEmpty()) {
+                cells.remove(doctorId);
+                return;
+            }
+            AtomicIntegerArray doctorCells = new AtomicIntegerArray(windowDays * HOURS * STATUSES);
+            for (AppointmentParticipants row : rows) {
+                int index = cellIndex(row.getAppointmentTime(), row.getStatus(), today);
+                if (index >= 0) {
+                    doctorCells.incrementAndGet(index);
+                }
+            }
+            cells.put(doctorId, doctorCells);
+        }
+
+        // The cell of an appointment, claiming its day slot if needed; -1 when it is outside the window or invalid
+        private int cellIndex(LocalDateTime appointmentTime, Integer status, LocalDate today) {
+            if (appointmentTime == null || status == null || status < 0 || status >= STATUSES) {
+                return -1;
+            }
+            long day = appointmentTime.toLocalDate().toEpochDay();
+            if (day < today.toEpochDay() - pastDays || day > today.toEpochDay() + futureDays) {
+                return -1;
+            }
+            int slot = (int) Math.floorMod(day, (long) windowDays);
+            if (slotDay.get(slot) != day) {
+                recycle(slot, day);
+            }
+            return index(slot, appointmentTime.getHour(), status);
+        }
+
+        int count(AtomicIntegerArray doctorCells, long day, int hour, int status) {
+            int slot = (int) Math.floorMod(day, (long) windowDays);
+            return slotDay.get(slot) == day ? doctorCells.get(index(slot, hour, status)) : 0;
+        }
+
+        // A day slot is handed to a newer day at most once per day, so this lock is practically uncontended
+        private synchronized void recycle(int slot, long day) {
+            if (slotDay.get(slot) == day) {
+                return;
+            }
+            int first = index(slot, 0, 0);
+            for (AtomicIntegerArray doctorCells : cells.values()) {
+                for (int i = first; i < first + HOURS * STATUSES; i++) {
+                    doctorCells.set(i, 0);
+                }
+            }
+            slotDay.set(slot, day);
+        }
+
+        private int index(int slot, int hour, int status) {
+            return (slot * HOURS + hour) * STATUSES + status;
+        }
+    }
+}
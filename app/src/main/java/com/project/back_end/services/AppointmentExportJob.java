@@ -0,0 +1,335 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import com.project.back_end.repo.AppointmentRemovalRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+@Component
+public class AppointmentExportJob {
+
+// 1. **Purpose**:
+//    - Exports the appointment / doctor join (hot and archived appointments) for offline analysis, so analysts stop
+//      running ad-hoc dumps against production.
+//    - Output is one Apache Arrow IPC file per month, `<directory>/month=YYYY-MM/appointments.arrow`, with
+//      ZSTD-compressed columns. pyarrow (`pa.ipc.open_file`), Polars (`read_ipc`) and DuckDB read it directly.
+//    - Patients are exported by id only; their names and contact details stay in the database.
+
+// 2. **Bounded memory**:
+//    - Each month is streamed from a forward-only cursor (fetch size 500) into one reusable batch of `batch-rows`
+//      rows, which is written and reset when full. Arrow buffers are capped by `max-memory-mb`; the run fails
+//      instead of growing past it.
+//    - A month is written to a temporary file and moved into place, so readers never see a half-written file.
+
+// 3. **Incremental runs**:
+//    - The watermark (start time of the last successful run) is kept in `<directory>/_watermark`.
+//    - A run re-exports only the months with an appointment updated since the watermark (Appointment.updatedAt) or
+//      removed since then (AppointmentRemoval). Both are looked up `safety-lag-seconds` before the watermark, so
+//      a transaction that stamped its rows before the last run but committed after it is still picked up.
+//    - Without a watermark, or with `full`, every month is exported and partitions of months without appointments
+//      are deleted. Doctor profile edits (name, specialty) are not tracked; a full run refreshes them.
+//    - Runs one at a time on their own thread; the admin endpoint only starts a run and reports the last result.
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentExportJob.class);
+
+    private static final String MONTH_SQL =
+            "SELECT a.id, a.appointment_time, a.status, a.doctor_id, d.name AS doctor_name, " +
+            "d.specialty AS doctor_specialty, a.patient_id " +
+            "FROM (SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment " +
+            "WHERE appointment_time >= ? AND appointment_time < ? " +
+            "UNION ALL SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment_archive " +
+            "WHERE appointment_time >= ? AND appointment_time < ?) a " +
+            "JOIN doctor d ON a.doctor_id = d.id";
+
+    // appointment_time is wall-clock time without a zone, stored as milliseconds as if it were UTC
+    static final Schema SCHEMA = new Schema(List.of(
+            Field.notNullable("appointment_id", new ArrowType.Int(64, true)),
+            Field.nullable("appointment_time", new ArrowType.Timestamp(org.apache.arrow.vector.types.TimeUnit.MILLISECOND, null)),
+            Field.notNullable("status", new ArrowType.Int(32, true)),
+            Field.notNullable("doctor_id", new ArrowType.Int(64, true)),
+            Field.nullable("doctor_name", ArrowType.Utf8.INSTANCE),
+            Field.nullable("doctor_specialty", ArrowType.Utf8.INSTANCE),
+            Field.notNullable("patient_id", new ArrowType.Int(64, true))));
+
+    private static final String PARTITION_PREFIX = "month=";
+    private static final String FILE_NAME = "appointments.arrow";
+    private static final String WATERMARK_FILE = "_watermark";
+    private static final int FETCH_SIZE = 500;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+    private final AppointmentRemovalRepository appointmentRemovalRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "appointment-export"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun;
+
+    @Value("${export.appointments.directory:./exports/appointments}")
+    private String directory;
+
+    @Value("${export.appointments.batch-rows:8192}")
+    private int batchRows;
+
+    @Value("${export.appointments.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    @Value("${export.appointments.safety-lag-seconds:300}")
+    private long safetyLagSeconds;
+
+    public AppointmentExportJob(AppointmentRepository appointmentRepository,
+                                AppointmentHistoryRepository appointmentHistoryRepository,
+                                AppointmentRemovalRepository appointmentRemovalRepository,
+                                PlatformTransactionManager transactionManager,
+                                DataSource dataSource) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+        this.appointmentRemovalRepository = appointmentRemovalRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+// 4. **start / status Methods**:
+//    - start returns 202 when a run was started and 409 when one is already running.
+//    - status reports whether a run is in progress and the summary (or error) of the last one.
+    public ResponseEntity<Map<String, Object>> start(boolean full) {
+        Map<String, Object> response = new HashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            response.put("error", "An export is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        executor.execute(() -> {
+            LocalDateTime startedAt = LocalDateTime.now();
+            try {
+                lastRun = run(full, startedAt);
+            } catch (Exception | LinkageError e) {
+                log.error("Appointment export failed", e);
+                Map<String, Object> failed = new HashMap<>();
+                failed.put("startedAt", startedAt);
+                failed.put("finishedAt", LocalDateTime.now());
+                failed.put("error", String.valueOf(e.getMessage()));
+                lastRun = failed;
+            } finally {
+                running.set(false);
+            }
+        });
+        response.put("message", "Export started");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    public ResponseEntity<Map<String, Object>> status() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("running", running.get());
+        response.put("lastRun", lastRun);
+        return ResponseEntity.ok(response);
+    }
+
+// 5. **run Method**:
+//    - Works out the months to export, exports them one by one, then advances the watermark and purges
+//      removal entries the next run no longer needs. A failure leaves the watermark where it was.
+    Map<String, Object> run(boolean full, LocalDateTime startedAt) throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        LocalDateTime watermark = full ? null : readWatermark(root);
+
+        Set<YearMonth> months = new TreeSet<>();
+        if (watermark == null) {
+            appointmentHistoryRepository.findAllMonths().forEach(month -> months.add(toYearMonth(month)));
+            months.addAll(exportedMonths(root));
+        } else {
+            LocalDateTime since = watermark.minusSeconds(safetyLagSeconds);
+            appointmentRepository.findMonthsUpdatedSince(since).forEach(month -> months.add(toYearMonth(month)));
+            appointmentRemovalRepository.findMonthsRemovedSince(since).forEach(month -> months.add(toYearMonth(month)));
+        }
+
+        long rows = 0;
+        for (YearMonth month : months) {
+            rows += exportMonth(root, month);
+        }
+
+        writeWatermark(root, startedAt);
+        transactionTemplate.executeWithoutResult(status ->
+                appointmentRemovalRepository.deleteRemovedBefore(startedAt.minusSeconds(safetyLagSeconds)));
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("startedAt", startedAt);
+        summary.put("finishedAt", LocalDateTime.now());
+        summary.put("full", watermark == null);
+        summary.put("months", months.stream().map(YearMonth::toString).toList());
+        summary.put("rows", rows);
+        log.info("Exported {} appointments in {} months to {}", rows, months.size(), root.toAbsolutePath());
+        return summary;
+    }
+
+    // Writes one month's partition (or deletes it when the month has no appointments left); returns the row count
+    long exportMonth(Path root, YearMonth month) throws IOException {
+        Path partition = root.resolve(PARTITION_PREFIX + month);
+        Path target = partition.resolve(FILE_NAME);
+        Path temp = partition.resolve(FILE_NAME + ".tmp");
+        Files.createDirectories(partition);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        long rows;
+        try (BufferAllocator allocator = new RootAllocator(maxMemoryMb * 1024 * 1024);
+             VectorSchemaRoot batch = VectorSchemaRoot.create(SCHEMA, allocator);
+             FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING);
+             ArrowFileWriter writer = new ArrowFileWriter(batch, null, channel, Map.of("month", month.toString()),
+                     IpcOption.DEFAULT, CommonsCompressionFactory.INSTANCE, CompressionUtil.CodecType.ZSTD)) {
+            writer.start();
+            BatchWriter batchWriter = new BatchWriter(batch, writer);
+            jdbcTemplate.query(MONTH_SQL, batchWriter, from, to, from, to);
+            batchWriter.flush();
+            writer.end();
+            rows = batchWriter.rows;
+        }
+
+        if (rows == 0) {
+            Files.delete(temp);
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(partition);
+        } else {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return rows;
+    }
+
+    private static YearMonth toYearMonth(int yearMonth) {
+        return YearMonth.of(yearMonth / 100, yearMonth % 100);
+    }
+
+    private static List<YearMonth> exportedMonths(Path root) throws IOException {
+        try (Stream<Path> partitions = Files.list(root)) {
+            return partitions.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PARTITION_PREFIX))
+                    .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length())))
+                    .toList();
+        }
+    }
+
+    private static LocalDateTime readWatermark(Path root) throws IOException {
+        Path file = root.resolve(WATERMARK_FILE);
+        return Files.exists(file) ? LocalDateTime.parse(Files.readString(file).trim()) : null;
+    }
+
+    private static void writeWatermark(Path root, LocalDateTime watermark) throws IOException {
+        Path temp = root.resolve(WATERMARK_FILE + ".tmp");
+        Files.writeString(temp, watermark.toString());
+        Files.move(temp, root.resolve(WATERMARK_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Fills the reusable batch row by row and writes it out every `batchRows` rows
+    private final class BatchWriter implements RowCallbackHandler {
+
+        private final VectorSchemaRoot batch;
+        private final ArrowFileWriter writer;
+        private final BigIntVector id;
+        private final TimeStampMilliVector appointmentTime;
+        private final IntVector status;
+        private final BigIntVector doctorId;
+        private final VarCharVector doctorName;
+        private final VarCharVector doctorSpecialty;
+        private final BigIntVector patientId;
+        private int index;
+        private long rows;
+
+        private BatchWriter(VectorSchemaRoot batch, ArrowFileWriter writer) {
+            this.batch = batch;
+            this.writer = writer;
+            this.id = (BigIntVector) batch.getVector("appointment_id");
+            this.appointmentTime = (TimeStampMilliVector) batch.getVector("appointment_time");
+            this.status = (IntVector) batch.getVector("status");
+            this.doctorId = (BigIntVector) batch.getVector("doctor_id");
+            this.doctorName = (VarCharVector) batch.getVector("doctor_name");
+            this.doctorSpecialty = (VarCharVector) batch.getVector("doctor_specialty");
+            this.patientId = (BigIntVector) batch.getVector("patient_id");
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            id.setSafe(index, rs.getLong("id"));
+            Timestamp time = rs.getTimestamp("appointment_time");
+            if (time == null) {
+                appointmentTime.setNull(index);
+            } else {
+                appointmentTime.setSafe(index, time.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+            status.setSafe(index, rs.getInt("status"));
+            doctorId.setSafe(index, rs.getLong("doctor_id"));
+            setString(doctorName, rs.getString("doctor_name"));
+            setString(doctorSpecialty, rs.getString("doctor_specialty"));
+            patientId.setSafe(index, rs.getLong("patient_id"));
+            if (++index == batchRows) {
+                flush();
+            }
+        }
+
+        private void setString(VarCharVector vector, String value) {
+            if (value == null) {
+                vector.setNull(index);
+            } else {
+                vector.setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private void flush() {
+            if (index == 0) {
+                return;
+            }
+            batch.setRowCount(index);
+            try {
+                writer.writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows += index;
+            index = 0;
+            batch.getFieldVectors().forEach(FieldVector::reset);
+        }
+    }
+}
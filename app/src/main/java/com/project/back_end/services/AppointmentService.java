@@ -1,8 +1,11 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentParticipants;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.AppointmentRemoval;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRemovalRepository;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -11,11 +14,13 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.*;
 
 @Service
@@ -34,18 +39,27 @@ public class AppointmentService {
     private com.project.back_end.services.Service service;
     private PatientRepository patientRepository;
     private DoctorRepository doctorRepository;
+    private DoctorRollupService doctorRollupService;
+    private AppointmentRemovalRepository appointmentRemovalRepository;
+    private CacheChangeLog cacheChangeLog;
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepository,
                               com.project.back_end.services.Service service,
                               TokenService tokenService,
                               PatientRepository patientRepository,
-                              DoctorRepository doctorRepository) {
+                              DoctorRepository doctorRepository,
+                              DoctorRollupService doctorRollupService,
+                              AppointmentRemovalRepository appointmentRemovalRepository,
+                              CacheChangeLog cacheChangeLog) {
         this.appointmentRepository = appointmentRepository;
         this.service = service;
         this.tokenService = tokenService;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.doctorRollupService = doctorRollupService;
+        this.appointmentRemovalRepository = appointmentRemovalRepository;
+        this.cacheChangeLog = cacheChangeLog;
     }
 
 // 3. **Add @Transactional Annotation for Methods that Modify Database**:
@@ -68,6 +82,8 @@ public class AppointmentService {
             if (patient.isEmpty()) return 0;
 
             appointmentRepository.save(appointment);
+            doctorRollupService.appointmentAdded(appointment.getDoctor().getId(), appointment.getAppointmentTime(), appointment.getStatus());
+            cacheChangeLog.appointmentChanged(appointment.getId(), appointment.getDoctor().getId());
             return 1;
         } catch (Exception e) {
             return 0;
@@ -89,9 +105,21 @@ public class AppointmentService {
                     existingApp.get().getPatient().getId().equals(appointment.getPatient().getId())
                     && existingApp.get().isUpcoming() && service.validateAppointment(appointment) == 1
             ) {
+                Long previousDoctorId = existingApp.get().getDoctor().getId();
+                doctorRollupService.appointmentRemoved(previousDoctorId,
+                        existingApp.get().getAppointmentTime(), existingApp.get().getStatus());
+                cacheChangeLog.appointmentChanged(appointment.getId(), previousDoctorId);
+                if (!YearMonth.from(existingApp.get().getAppointmentTime()).equals(YearMonth.from(appointment.getAppointmentTime()))) {
+                    appointmentRemovalRepository.save(new AppointmentRemoval(existingApp.get().getAppointmentTime(), LocalDateTime.now()));
+                }
                 existingApp.get().setAppointmentTime(appointment.getAppointmentTime());
                 existingApp.get().setDoctor(appointment.getDoctor());
                 appointmentRepository.save(existingApp.get());
+                doctorRollupService.appointmentAdded(appointment.getDoctor().getId(),
+                        appointment.getAppointmentTime(), existingApp.get().getStatus());
+                if (!appointment.getDoctor().getId().equals(previousDoctorId)) {
+                    cacheChangeLog.appointmentChanged(appointment.getId(), appointment.getDoctor().getId());
+                }
                 map.put("message", "appointment updated");
                 response = new ResponseEntity<>(map, HttpStatus.OK);
                 return response;
@@ -119,7 +147,11 @@ public class AppointmentService {
         String patientEmail = tokenService.extractIdentifier(token);
         if (appointment.isPresent() && tokenService.validateToken(token, "patient")
                 && appointment.get().getPatient().getEmail().equals(patientEmail)) {
+            doctorRollupService.appointmentRemoved(appointment.get().getDoctor().getId(),
+                    appointment.get().getAppointmentTime(), appointment.get().getStatus());
+            appointmentRemovalRepository.save(new AppointmentRemoval(appointment.get().getAppointmentTime(), LocalDateTime.now()));
             appointmentRepository.deleteById(id);
+            cacheChangeLog.appointmentChanged(id, appointment.get().getDoctor().getId());
             map.put("message", "appointment cancelled");
             response = new ResponseEntity<>(map, HttpStatus.OK);
         }
@@ -159,9 +191,22 @@ public class AppointmentService {
 //    - This method updates the status of an appointment by changing its value in the database.
 //    - It should be annotated with `@Transactional` to ensure the operation is executed in a single transaction.
 //    - Instruction: Add `@Transactional` before this method to ensure atomicity when updating appointment status.
+//    - The current status is read with a row lock, so the doctor rollup is moved from the status the appointment really had.
     @Transactional
     public void changeStatus(long id, int status) {
-        appointmentRepository.updateStatus(id, status);
+        appointmentRepository.findParticipantsById(id).ifPresent(appointment -> changeStatus(appointment, status));
+    }
+
+    // For callers that already hold the locked row from AppointmentRepository.findParticipantsById in their transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changeStatus(AppointmentParticipants appointment, int status) {
+        if (appointment.getStatus() == status) {
+            return;
+        }
+        appointmentRepository.updateStatus(appointment.getId(), status);
+        doctorRollupService.appointmentRemoved(appointment.getDoctorId(), appointment.getAppointmentTime(), appointment.getStatus());
+        doctorRollupService.appointmentAdded(appointment.getDoctorId(), appointment.getAppointmentTime(), status);
+        cacheChangeLog.appointmentChanged(appointment.getId(), appointment.getDoctorId());
     }
 }
 
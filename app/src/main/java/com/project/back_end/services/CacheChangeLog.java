@@ -0,0 +1,46 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.CacheChange;
+import com.project.back_end.repo.CacheChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class CacheChangeLog {
+
+// 1. Purpose:
+//    - Records doctor and appointment changes in `cache_change_log` inside the transaction that makes them,
+//      so every application instance can evict its cached copies once the change is committed (CacheChangePoller).
+//      A rolled-back change leaves no row behind.
+//    - Called by DoctorService and AppointmentService next to the write itself; changes made
+//      outside them (SQL scripts, SyntheticDataGenerator, the archiver) are not recorded and only show up when the
+//      cached entries expire.
+//    - With `cache.change-log.enabled=false` nothing is recorded.
+
+    private final CacheChangeRepository cacheChangeRepository;
+
+    @Value("${cache.change-log.enabled:true}")
+    private boolean enabled;
+
+    public CacheChangeLog(CacheChangeRepository cacheChangeRepository) {
+        this.cacheChangeRepository = cacheChangeRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void doctorChanged(Long doctorId) {
+        record(new CacheChange(CacheChange.Kind.DOCTOR, doctorId, doctorId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentChanged(Long appointmentId, Long doctorId) {
+        record(new CacheChange(CacheChange.Kind.APPOINTMENT, appointmentId, doctorId));
+    }
+
+    private void record(CacheChange change) {
+        if (enabled) {
+            cacheChangeRepository.save(change);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.CacheChange;
+import com.project.back_end.repo.CacheChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "cache.change-log.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheChangePoller {
+
+// 1. **Purpose**:
+//    - Keeps the in-process caches of this instance coherent with writes made on any instance, without a message
+//      broker: polls `cache_change_log` every `poll-interval-ms` and publishes a CacheInvalidationEvent per new row.
+//    - Changes made by this instance are applied too. Hibernate has already refreshed its own second-level cache by
+//      then, so that costs one extra cache miss, and it lets the heatmaps pick up local bookings as well.
+//    - With the read replica enabled the log is read from the replica, like the data it describes, so an entry is
+//      only applied once the replica can serve the changed rows.
+
+// 2. **Cursor**:
+//    - The poller remembers the highest id it has applied and asks for the rows after it. It starts from the latest
+//      id at startup, when nothing is cached yet.
+//    - Ids are assigned at insert time but become visible at commit, so a long transaction can commit a row below
+//      the cursor. Ids skipped over are therefore re-read on every poll for `gap-timeout-ms` before they are given up
+//      as rolled back. At most MAX_GAPS are tracked at a time; ids beyond that are logged as untracked, and a change
+//      committed under one of them is only seen by this instance when the cached entries expire.
+
+// 3. **purge Method**:
+//    - Rows older than `retention-minutes` are deleted; every instance has applied them long before.
+
+    private static final Logger log = LoggerFactory.getLogger(CacheChangePoller.class);
+
+    private static final int MAX_GAPS = 1000;
+
+    private final CacheChangeRepository cacheChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Skipped id -> System.nanoTime() after which it is no longer looked for
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private long cursor = -1;
+
+    @Value("${cache.change-log.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache.change-log.gap-timeout-ms:30000}")
+    private long gapTimeoutMillis;
+
+    @Value("${cache.change-log.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public CacheChangePoller(CacheChangeRepository cacheChangeRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.cacheChangeRepository = cacheChangeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+// 4. **poll Method**:
+//    - Applies late commits below the cursor first, then drains everything after it in batches.
+//    - Returns the number of changes applied.
+    @Scheduled(fixedDelayString = "${cache.change-log.poll-interval-ms:250}")
+    public synchronized int poll() {
+        if (cursor < 0) {
+            cursor = cacheChangeRepository.findLatestId();
+            return 0;
+        }
+
+        int applied = 0;
+        if (!gaps.isEmpty()) {
+            for (CacheChange change : cacheChangeRepository.findByIds(gaps.keySet())) {
+                gaps.remove(change.getId());
+                apply(change);
+                applied++;
+            }
+            long now = System.nanoTime();
+            gaps.values().removeIf(deadline -> deadline - now < 0);
+        }
+
+        int fetched;
+        do {
+            List<CacheChange> batch = cacheChangeRepository.findAfter(cursor, Limit.of(batchSize));
+            fetched = batch.size();
+            for (CacheChange change : batch) {
+                rememberGaps(change.getId());
+                cursor = change.getId();
+                apply(change);
+                applied++;
+            }
+        } while (fetched == batchSize);
+        return applied;
+    }
+
+    private void rememberGaps(long id) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(gapTimeoutMillis);
+        long missing = cursor + 1;
+        for (; missing < id && gaps.size() < MAX_GAPS; missing++) {
+            gaps.put(missing, deadline);
+        }
+        if (missing < id) {
+            log.warn("Cache change log: {} skipped ids ({} to {}) not tracked, {} gaps already pending",
+                    id - missing, missing, id - 1, MAX_GAPS);
+        }
+    }
+
+    // A failing listener must not stop the cursor; that cache keeps the stale entry until it expires
+    private void apply(CacheChange change) {
+        try {
+            eventPublisher.publishEvent(new CacheInvalidationEvent(change.getKind(), change.getEntityId(), change.getDoctorId()));
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation failed for {} {}", change.getKind(), change.getEntityId(), e);
+        }
+    }
+
+    @Scheduled(cron = "${cache.change-log.purge-cron:0 */15 * * * *}")
+    public int purge() {
+        Integer purged = transactionTemplate.execute(status ->
+                cacheChangeRepository.deleteChangedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        return purged == null ? 0 : purged;
+    }
+}
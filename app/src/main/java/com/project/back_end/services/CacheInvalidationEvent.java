@@ -0,0 +1,35 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.CacheChange;
+
+public class CacheInvalidationEvent {
+
+// 1. Purpose:
+//    - Published by CacheChangePoller for every committed `cache_change_log` row, on every application instance,
+//      including the one that made the change.
+//    - Listeners evict only what the change touches: the doctor's second-level cache entries, the heatmaps covering
+//      the doctor, the "no prescription" marker of the appointment.
+
+    private final CacheChange.Kind kind;
+    private final Long entityId;
+    private final Long doctorId;
+
+    public CacheInvalidationEvent(CacheChange.Kind kind, Long entityId, Long doctorId) {
+        this.kind = kind;
+        this.entityId = entityId;
+        this.doctorId = doctorId;
+    }
+
+    public CacheChange.Kind getKind() {
+        return kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    // The doctor whose schedule changed
+    public Long getDoctorId() {
+        return doctorId;
+    }
+}
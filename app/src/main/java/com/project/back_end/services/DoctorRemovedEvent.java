@@ -0,0 +1,17 @@
+package com.project.back_end.services;
+
+public class DoctorRemovedEvent {
+
+// 1. Purpose:
+//    - Published by DoctorRollupService when a doctor and all their appointments are deleted.
+
+    private final Long doctorId;
+
+    public DoctorRemovedEvent(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+}
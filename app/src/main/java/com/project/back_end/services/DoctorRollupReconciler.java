@@ -0,0 +1,124 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorDailyTotal;
+import com.project.back_end.models.DoctorDailyCount;
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import com.project.back_end.repo.DoctorDailyCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "report.rollup.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class DoctorRollupReconciler {
+
+// 1. **Purpose**:
+//    - Checks the doctor_daily_count rollup against the appointment tables and repairs any drift
+//      (e.g. rows changed by hand in the database, or written by code that bypassed DoctorRollupService).
+//    - On startup it builds the rollup from scratch when the table is still empty.
+
+// 2. **Consistency**:
+//    - Both sides are read in one REPEATABLE READ transaction, i.e. from the same InnoDB snapshot, so an appointment
+//      committed while the check runs is either in both reads or in neither.
+//    - Repairs are applied as deltas through the same atomic increment the live path uses, so they never overwrite
+//      increments that committed after the snapshot was taken.
+//    - The startup seed is the exception: it writes absolute counts, because several instances may find the table
+//      empty at the same time and seeding by increments would add their counts up. A booking that lands between the
+//      seed's snapshot and its write can be overwritten; it is always recent or future, so the nightly check repairs it.
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorRollupReconciler.class);
+
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+    private final DoctorDailyCountRepository doctorDailyCountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${report.rollup.reconcile.days:90}")
+    private int reconcileDays;
+
+    public DoctorRollupReconciler(AppointmentHistoryRepository appointmentHistoryRepository,
+                                  DoctorDailyCountRepository doctorDailyCountRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+        this.doctorDailyCountRepository = doctorDailyCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+// 3. **initialize Method**:
+//    - Builds the whole rollup once, the first time the application starts against a database without one.
+//    - Safe to run on several instances at once: every instance writes the same counts from its snapshot.
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (doctorDailyCountRepository.count() == 0) {
+                int seeded = seed();
+                log.info("Built doctor rollup: {} cells", seeded);
+            }
+        } catch (Exception e) {
+            log.error("Could not build the doctor rollup", e);
+        }
+    }
+
+// 4. **nightly Method**:
+//    - Re-checks the last `reconcile.days` days and everything booked ahead; older days only change by archiving,
+//      which leaves the rollup untouched.
+    @Scheduled(cron = "${report.rollup.reconcile.cron:0 45 2 * * *}")
+    public int nightly() {
+        int repaired = reconcile(LocalDate.now().minusDays(reconcileDays));
+        if (repaired > 0) {
+            log.warn("Doctor rollup reconciliation repaired {} cells", repaired);
+        }
+        return repaired;
+    }
+
+// 5. **reconcile Method**:
+//    - Compares every (doctor, day, status) cell from `since` onwards and returns how many had to be corrected.
+    public int reconcile(LocalDate since) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            Map<DoctorDailyCount.Key, Long> delta = new HashMap<>();
+            for (DoctorDailyTotal total : appointmentHistoryRepository.countDailyTotalsSince(since.atStartOfDay())) {
+                delta.put(new DoctorDailyCount.Key(total.getDoctorId(), total.getAppointmentDate(), total.getStatus()),
+                        total.getAppointmentCount());
+            }
+            for (DoctorDailyCount cell : doctorDailyCountRepository.findByAppointmentDateGreaterThanEqual(since)) {
+                delta.merge(cell.getKey(), -cell.getAppointmentCount(), Long::sum);
+            }
+
+            int corrected = 0;
+            for (Map.Entry<DoctorDailyCount.Key, Long> entry : delta.entrySet()) {
+                if (entry.getValue() != 0) {
+                    DoctorDailyCount.Key key = entry.getKey();
+                    doctorDailyCountRepository.increment(key.getDoctorId(), key.getAppointmentDate(), key.getStatus(), entry.getValue());
+                    corrected++;
+                }
+            }
+            return corrected;
+        });
+        return repaired == null ? 0 : repaired;
+    }
+
+    private int seed() {
+        Integer seeded = transactionTemplate.execute(status -> {
+            int cells = 0;
+            for (DoctorDailyTotal total : appointmentHistoryRepository.countDailyTotalsSince(LocalDate.EPOCH.atStartOfDay())) {
+                doctorDailyCountRepository.put(total.getDoctorId(), total.getAppointmentDate(), total.getStatus(),
+                        total.getAppointmentCount());
+                cells++;
+            }
+            return cells;
+        });
+        return seeded == null ? 0 : seeded;
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorPatientCount;
+import com.project.back_end.repo.DoctorDailyCountRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DoctorRollupService {
+
+    public static final int DEFAULT_TOP_DOCTORS = 10;
+    public static final int MAX_TOP_DOCTORS = 100;
+
+    private final DoctorDailyCountRepository doctorDailyCountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DoctorRollupService(DoctorDailyCountRepository doctorDailyCountRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.doctorDailyCountRepository = doctorDailyCountRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentAdded(Long doctorId, LocalDateTime appointmentTime, int status) {
+        doctorDailyCountRepository.increment(doctorId, appointmentTime.toLocalDate(), status, 1);
+        eventPublisher.publishEvent(new AppointmentChangeEvent(doctorId, appointmentTime, status, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentRemoved(Long doctorId, LocalDateTime appointmentTime, int status) {
+        doctorDailyCountRepository.increment(doctorId, appointmentTime.toLocalDate(), status, -1);
+        eventPublisher.publishEvent(new AppointmentChangeEvent(doctorId, appointmentTime, status, -1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void doctorRemoved(Long doctorId) {
+        doctorDailyCountRepository.deleteAllByDoctorId(doctorId);
+        eventPublisher.publishEvent(new DoctorRemovedEvent(doctorId));
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getTopDoctors(LocalDate from, LocalDate to, List<Integer> statuses, int limit) {
+        Map<String, Object> response = new HashMap<>();
+        Limit top = Limit.of(Math.max(1, Math.min(limit, MAX_TOP_DOCTORS)));
+
+        try {
+            List<DoctorPatientCount> doctors = (statuses == null || statuses.isEmpty())
+                    ? doctorDailyCountRepository.findTopDoctors(from, to, top)
+                    : doctorDailyCountRepository.findTopDoctorsByStatus(from, to, statuses, top);
+            response.put("from", from);
+            response.put("to", to);
+            response.put("doctors", doctors);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("error", "Failed to build the report");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+// 1. **Purpose**:
+//    - Maintains the doctor_daily_count rollup and answers "top doctors by patients seen" from it.
+//    - Replaces the GetDoctorWithMostPatientsByMonth / ByYear procedures, which counted the whole appointment table on every call.
+
+// 2. **appointmentAdded / appointmentRemoved / doctorRemoved Methods**:
+//    - Called by AppointmentService and DoctorService inside the transaction that changes the appointment, so the rollup
+//      commits or rolls back together with it (hence Propagation.MANDATORY).
+//    - A status change or a move to another doctor or day is one removal plus one addition.
+//    - Archiving does not touch the rollup: it counts hot and archived appointments alike.
+//    - Each change is also published as an AppointmentChangeEvent / DoctorRemovedEvent for in-memory views (AppointmentCube).
+
+// 3. **getTopDoctors Method**:
+//    - Doctors ranked by appointments between `from` and `to` (inclusive), optionally restricted to some statuses.
+//    - Like the procedures it counts appointments (COUNT(patient_id)), not distinct patients.
+}
@@ -1,9 +1,11 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.DoctorSlot;
 import com.project.back_end.DTO.Login;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRemovalRepository;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,13 +34,25 @@ public class DoctorService {
 //    - Instruction: Ensure constructor injection is used for injecting dependencies into the service.
     private DoctorRepository doctorRepository;
     private AppointmentRepository appointmentRepository;
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
     private TokenService tokenService;
+    private DoctorRollupService doctorRollupService;
+    private AppointmentRemovalRepository appointmentRemovalRepository;
+    private CacheChangeLog cacheChangeLog;
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
-                         TokenService tokenService) {
+                         ArchivedAppointmentRepository archivedAppointmentRepository,
+                         TokenService tokenService,
+                         DoctorRollupService doctorRollupService,
+                         AppointmentRemovalRepository appointmentRemovalRepository,
+                         CacheChangeLog cacheChangeLog) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.tokenService = tokenService;
+        this.doctorRollupService = doctorRollupService;
+        this.appointmentRemovalRepository = appointmentRemovalRepository;
+        this.cacheChangeLog = cacheChangeLog;
     }
 
 // 3. **Add @Transactional Annotation for Methods that Modify or Fetch Database Data**:
@@ -48,20 +63,21 @@ public class DoctorService {
 // 4. **getDoctorAvailability Method**:
 //    - Retrieves the available time slots for a specific doctor on a particular date and filters out already booked slots.
 //    - The method fetches all appointments for the doctor on the given date and calculates the availability by comparing against booked slots.
+//    - Reads the slots and the booked start times as two projections, so neither the doctor nor its appointments are loaded as entities.
 //    - Instruction: Ensure that the time slots are properly formatted and the available slots are correctly filtered.
     @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date){
-        Optional<Doctor> doctor = doctorRepository.findById(doctorId);
-        if(doctor.isEmpty()){
-            return new ArrayList<>();
-        }
         List<String> allSlots = new ArrayList<>();
-        for(String slot: doctor.get().getAvailableTimes()){
-            allSlots.add(slot.substring(0,2));
+        for(DoctorSlot slot: doctorRepository.findSlotsByDoctorId(doctorId)){
+            allSlots.add(slot.getSlot().substring(0,2));
+        }
+        if(allSlots.isEmpty()){
+            return allSlots;
         }
-        List<Appointment> bookedAppointments = appointmentRepository.filterByDoctorIdAndDate(doctorId, date);
-        for(Appointment appointment : bookedAppointments){
-            String busyHour = appointment.getAppointmentTime().toLocalTime().toString().substring(0,2);
+        List<LocalDateTime> bookedTimes = appointmentRepository.findAppointmentTimesByDoctorId(
+                doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        for(LocalDateTime bookedTime : bookedTimes){
+            String busyHour = bookedTime.toLocalTime().toString().substring(0,2);
             allSlots.remove(busyHour);
         }
         return allSlots;
@@ -79,6 +95,7 @@ public class DoctorService {
                 throw new ValidationException("Doctor with this email already exists");
             }
             doctorRepository.save(doctor);
+            cacheChangeLog.doctorChanged(doctor.getId());
             return 1;
         } catch (ConstraintViolationException e) { // Catch ConstraintViolationException directly
             Set<ConstraintViolation<?>> violations = e.getConstraintViolations();
@@ -102,6 +119,7 @@ public class DoctorService {
                 throw new ValidationException("Doctor not found");
             }
             doctorRepository.save(doctor);
+            cacheChangeLog.doctorChanged(doctor.getId());
             return 1;
         } catch (ConstraintViolationException e) { // Catch ConstraintViolationException directly
             Set<ConstraintViolation<?>> violations = e.getConstraintViolations();
@@ -129,8 +147,12 @@ public class DoctorService {
             if (!doctorRepository.existsById(id)) {
                 throw new ValidationException("Doctor not found");
             }
+            appointmentRemovalRepository.recordDoctorRemoval(id, LocalDateTime.now());
             appointmentRepository.deleteAllByDoctorId(id);
+            archivedAppointmentRepository.deleteAllByDoctorId(id);
+            doctorRollupService.doctorRemoved(id);
             doctorRepository.deleteById(id);
+            cacheChangeLog.doctorChanged(id);
             return 1;
         } catch (Exception e) {
             throw new RuntimeException("Failed to save doctor: " + e.getMessage());
@@ -240,7 +262,8 @@ public class DoctorService {
 //    - Instruction: Ensure that the collection is eagerly loaded, especially if dealing with lazy-loaded relationships (e.g., available times). 
 
 // 8. **deleteDoctor Method**:
-//    - Deletes a doctor from the system along with all appointments associated with that doctor.
+//    - Deletes a doctor from the system along with all appointments associated with that doctor, including archived ones,
+//      and the doctor's rows in the doctor_daily_count rollup.
 //    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments.
 //    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
 
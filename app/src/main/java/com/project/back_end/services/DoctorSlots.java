@@ -0,0 +1,37 @@
+package com.project.back_end.services;
+
+import java.util.Collection;
+
+// Helpers for a doctor's availableTimes, which are hourly slots such as "09:00-10:00" offered every day.
+final class DoctorSlots {
+
+    private DoctorSlots() {
+    }
+
+    // Bit h is set when the slot starting at hour h is offered; malformed entries are ignored
+    static int hourMask(Collection<String> availableTimes) {
+        int mask = 0;
+        if (availableTimes == null) {
+            return mask;
+        }
+        for (String slot : availableTimes) {
+            int hour = startHour(slot);
+            if (hour >= 0) {
+                mask |= 1 << hour;
+            }
+        }
+        return mask;
+    }
+
+    static int startHour(String slot) {
+        if (slot == null || slot.length() < 2) {
+            return -1;
+        }
+        try {
+            int hour = Integer.parseInt(slot.substring(0, 2));
+            return hour >= 0 && hour < 24 ? hour : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
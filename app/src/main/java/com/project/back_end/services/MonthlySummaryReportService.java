@@ -0,0 +1,142 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorMonthlySummary;
+import com.project.back_end.DTO.DoctorStatusCount;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class MonthlySummaryReportService {
+
+// 1. **Purpose**:
+//    - Builds the month-end summary for every doctor: appointments by status, total visits and prescriptions issued.
+//    - Instead of a round of queries per doctor, doctors are split into partitions of `partition-size` and each
+//      partition costs one grouped MySQL query plus one MongoDB aggregation, all restricted to the month.
+
+// 2. **Parallelism**:
+//    - Partitions run on a dedicated fork/join pool of `report.summary.parallelism` threads; halves are forked
+//      recursively and the per-partition rows are concatenated back in doctor id order.
+//    - The pool never grows past its parallelism (workers blocked on I/O are not compensated), so one report holds
+//      at most that many JDBC connections. Keep it below the Hikari pool size (10 by default) so bookings still
+//      get connections while a report runs; beyond that point more threads only queue on the pool.
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlySummaryReportService.class);
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+
+    public MonthlySummaryReportService(DoctorRepository doctorRepository,
+                                       AppointmentHistoryRepository appointmentHistoryRepository,
+                                       PrescriptionRepository prescriptionRepository,
+                                       @Value("${report.summary.parallelism:4}") int parallelism,
+                                       @Value("${report.summary.partition-size:50}") int partitionSize) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.partitionSize = Math.max(1, partitionSize);
+        int threads = Math.max(1, parallelism);
+        this.pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+                threads, threads, 1, pool -> true, 60, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+// 3. **getMonthlySummary Method**:
+//    - Returns one row per doctor (including doctors without appointments) for the given calendar month.
+    public ResponseEntity<Map<String, Object>> getMonthlySummary(YearMonth month) {
+        Map<String, Object> response = new HashMap<>();
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        try {
+            long start = System.nanoTime();
+            List<DoctorMonthlySummary> doctors = pool.invoke(
+                    new PartitionTask(doctorRepository.findAllForMonthlySummary(), from, to));
+            log.info("Monthly summary for {}: {} doctors in {} ms on {} threads", month, doctors.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), pool.getParallelism());
+
+            response.put("month", month.toString());
+            response.put("doctors", doctors);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Monthly summary for {} failed", month, e);
+            response.put("error", "Failed to build the report");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+// 4. **PartitionTask**:
+//    - Splits its doctors in half until a slice fits in one partition, then counts that slice.
+//    - Every slice owns its rows, so workers never share mutable state and the merge is a plain concatenation.
+    private final class PartitionTask extends RecursiveTask<List<DoctorMonthlySummary>> {
+
+        private final List<DoctorMonthlySummary> doctors;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        private PartitionTask(List<DoctorMonthlySummary> doctors, LocalDateTime from, LocalDateTime to) {
+            this.doctors = doctors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<DoctorMonthlySummary> compute() {
+            if (doctors.size() <= partitionSize) {
+                return summarize();
+            }
+            int middle = doctors.size() / 2;
+            PartitionTask left = new PartitionTask(doctors.subList(0, middle), from, to);
+            PartitionTask right = new PartitionTask(doctors.subList(middle, doctors.size()), from, to);
+            left.fork();
+            List<DoctorMonthlySummary> merged = new ArrayList<>(right.compute());
+            merged.addAll(0, left.join());
+            return merged;
+        }
+
+        private List<DoctorMonthlySummary> summarize() {
+            if (doctors.isEmpty()) {
+                return doctors;
+            }
+            Map<Long, DoctorMonthlySummary> byId = new HashMap<>();
+            for (DoctorMonthlySummary doctor : doctors) {
+                byId.put(doctor.getDoctorId(), doctor);
+            }
+
+            for (DoctorStatusCount count : appointmentHistoryRepository.countByDoctorAndStatus(byId.keySet(), from, to)) {
+                DoctorMonthlySummary doctor = byId.get(count.getDoctorId());
+                switch (count.getStatus()) {
+                    case Appointment.STATUS_SCHEDULED -> doctor.setScheduled(count.getAppointmentCount());
+                    case Appointment.STATUS_COMPLETED -> doctor.setCompleted(count.getAppointmentCount());
+                    case Appointment.STATUS_CANCELLED -> doctor.setCancelled(count.getAppointmentCount());
+                    default -> {
+                    }
+                }
+            }
+            prescriptionRepository.countByDoctorIds(byId.keySet(), from, to)
+                    .forEach((doctorId, prescriptions) -> byId.get(doctorId).setPrescriptions(prescriptions));
+            return doctors;
+        }
+    }
+}
@@ -1,34 +1,47 @@
 package com.project.back_end.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.project.back_end.DTO.AppointmentCursor;
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
-import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.AppointmentHistoryRepository;
 import com.project.back_end.repo.PatientRepository;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PatientService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final PatientRepository patientRepository;
-    private final AppointmentRepository appointmentRepository;
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
     private final @Lazy TokenService tokenService;
+    private final ObjectMapper objectMapper;
 
     public PatientService(PatientRepository patientRepository,
-                          AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          AppointmentHistoryRepository appointmentHistoryRepository,
+                          TokenService tokenService,
+                          ObjectMapper objectMapper) {
         this.patientRepository = patientRepository;
-        this.appointmentRepository = appointmentRepository;
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
         this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
     }
 
     @Transactional
@@ -57,6 +70,11 @@ public class PatientService {
 
     @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+        return getPatientAppointment(id, token, null, DEFAULT_PAGE_SIZE);
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token, String cursor, int limit) {
         Map<String, Object> response = new HashMap<>();
 
         // Verify patient owns the appointments
@@ -68,11 +86,26 @@ public class PatientService {
             return ResponseEntity.badRequest().body(response);
         }*/
 
+        AppointmentCursor after;
         try {
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            after = (cursor == null || cursor.isEmpty()) ? null : AppointmentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Invalid cursor");
+            return ResponseEntity.badRequest().body(response);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        try {
+            // Fetch one extra row to know whether another page exists without a COUNT query
+            Limit fetchLimit = Limit.of(pageSize + 1);
+            List<AppointmentDTO> appointmentDTOs = after == null
+                    ? appointmentHistoryRepository.findPatientHistoryFirstPage(id, fetchLimit)
+                    : appointmentHistoryRepository.findPatientHistoryAfter(id, after.getAppointmentTime(), after.getId(), fetchLimit);
+
+            if (appointmentDTOs.size() > pageSize) {
+                appointmentDTOs = appointmentDTOs.subList(0, pageSize);
+                response.put("nextCursor", AppointmentCursor.of(appointmentDTOs.get(pageSize - 1)).encode());
+            }
 
             response.put("appointments", appointmentDTOs);
             return ResponseEntity.ok(response);
@@ -82,6 +115,28 @@ public class PatientService {
         }
     }
 
+    // Writes the whole history as NDJSON (one AppointmentDTO per line) while the rows are read from a
+    // forward-only cursor, so memory use stays flat no matter how many appointments the patient has.
+    @Transactional(readOnly = true)
+    public void exportPatientAppointments(Long id, OutputStream out) throws IOException {
+        try (Stream<AppointmentDTO> rows = appointmentHistoryRepository.streamPatientHistory(id);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<AppointmentDTO> iterator = rows.iterator();
+            if (!iterator.hasNext()) {
+                // No appointments: an empty body, not a blank line
+                return;
+            }
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+        out.write('\n');
+        out.flush();
+    }
+
     @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         Map<String, Object> response = new HashMap<>();
@@ -97,11 +152,7 @@ public class PatientService {
         }
 
         try {
-            List<Appointment> appointments = appointmentRepository
-                    .findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, status);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentHistoryRepository.findPatientHistoryByStatus(id, status);
 
             response.put("appointments", appointmentDTOs);
             return ResponseEntity.ok(response);
@@ -116,10 +167,7 @@ public class PatientService {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientId(name, patientId);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentHistoryRepository.findPatientHistoryByDoctorName(name, patientId);
 
             response.put("appointments", appointmentDTOs);
             return ResponseEntity.ok(response);
@@ -145,11 +193,8 @@ public class PatientService {
         }
 
         try {
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name,
+            List<AppointmentDTO> appointmentDTOs = appointmentHistoryRepository.findPatientHistoryByDoctorNameAndStatus(name,
                     patientId, status);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
 
             response.put("appointments", appointmentDTOs);
             return ResponseEntity.ok(response);
@@ -186,19 +231,6 @@ public class PatientService {
             return ResponseEntity.internalServerError().body(response);
         }
     }
-    private AppointmentDTO convertToDTO(Appointment appointment) {
-        return new AppointmentDTO(
-                appointment.getId(),
-                appointment.getDoctor().getId(),
-                appointment.getDoctor().getName(),
-                appointment.getPatient().getId(),
-                appointment.getPatient().getName(),
-                appointment.getPatient().getEmail(),
-                appointment.getPatient().getPhone(),
-                appointment.getPatient().getAddress(),
-                appointment.getAppointmentTime(),
-                appointment.getStatus());
-    }
 }
 
 // 1. **Add @Service Annotation**:
@@ -207,7 +239,8 @@ public class PatientService {
 //    - Instruction: Ensure that the `@Service` annotation is applied above the class declaration.
 
 // 2. **Constructor Injection for Dependencies**:
-//    - The `PatientService` class has dependencies on `PatientRepository`, `AppointmentRepository`, and `TokenService`.
+//    - The `PatientService` class has dependencies on `PatientRepository`, `AppointmentHistoryRepository`, and `TokenService`.
+//    - Appointment reads go through `AppointmentHistoryRepository`, which covers both the hot and the archived appointments.
 //    - These dependencies are injected via the constructor to maintain good practices of dependency injection and testing.
 //    - Instruction: Ensure constructor injection is used for all the required dependencies.
 
@@ -217,8 +250,10 @@ public class PatientService {
 //    - Instruction: Ensure that error handling is done properly and exceptions are caught and logged appropriately.
 
 // 4. **getPatientAppointment Method**:
-//    - Retrieves a list of appointments for a specific patient, based on their ID.
-//    - The appointments are then converted into `AppointmentDTO` objects for easier consumption by the API client.
+//    - Retrieves a page of appointments for a specific patient, based on their ID, ordered by (appointmentTime, id).
+//    - Pages are keyset-paginated: the response carries a `nextCursor` while more rows remain, and the client passes it back to get the next page.
+//    - The appointments are projected directly into `AppointmentDTO` objects for easier consumption by the API client.
+//    - `exportPatientAppointments` streams the full history as NDJSON for clients that need every row.
 //    - This method is marked as `@Transactional` to ensure database consistency during the transaction.
 //    - Instruction: Ensure that appointment data is properly converted into DTOs and the method handles errors gracefully.
 
@@ -0,0 +1,107 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "prescription.status-migration.enabled", havingValue = "true")
+public class PrescribedStatusMigrationJob implements ApplicationRunner {
+
+// 1. **Purpose**:
+//    - One-off migration for appointments prescribed before PrescriptionService recorded status 1 (completed): they
+//      were marked 2, which the model defines as cancelled, so the rollup, the cube, the heatmaps and the archiver
+//      counted them as cancellations.
+//    - Disabled by default; run once with `prescription.status-migration.enabled=true` after the prescription outbox
+//      has drained. Only appointments still at status 2 that have a prescription are changed, and the application no
+//      longer writes status 2 for a prescribed visit, so it can be stopped and restarted safely.
+
+// 2. **Batching**:
+//    - Pages through the prescriptions by _id, reading only appointmentId, and moves the batch's current and archived
+//      appointments with one UPDATE per table. Current rows get updatedAt stamped, so the analytics export picks their
+//      months up; archived months need a full export run.
+
+// 3. **Afterwards**:
+//    - The rows were changed without DoctorRollupService, so the doctor rollup is reconciled in full and the
+//      appointment cube rebuilt where they run on this instance. Other instances rebuild their cube nightly, and
+//      cached heatmaps expire with their TTL.
+
+    private static final Logger log = LoggerFactory.getLogger(PrescribedStatusMigrationJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ObjectProvider<DoctorRollupReconciler> doctorRollupReconciler;
+    private final ObjectProvider<AppointmentCube> appointmentCube;
+
+    @Value("${prescription.status-migration.batch-size:500}")
+    private int batchSize;
+
+    public PrescribedStatusMigrationJob(MongoTemplate mongoTemplate,
+                                        AppointmentRepository appointmentRepository,
+                                        ArchivedAppointmentRepository archivedAppointmentRepository,
+                                        ObjectProvider<DoctorRollupReconciler> doctorRollupReconciler,
+                                        ObjectProvider<AppointmentCube> appointmentCube) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.doctorRollupReconciler = doctorRollupReconciler;
+        this.appointmentCube = appointmentCube;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int current = 0;
+        int archived = 0;
+        Object lastId = null;
+        List<Document> batch;
+        do {
+            Query query = new Query(lastId == null ? new Criteria() : Criteria.where("_id").gt(lastId))
+                    .with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id", "appointmentId");
+            batch = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Prescription.class));
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+
+            List<Long> appointmentIds = batch.stream()
+                    .map(document -> document.get("appointmentId"))
+                    .filter(Number.class::isInstance)
+                    .map(id -> ((Number) id).longValue())
+                    .distinct()
+                    .toList();
+            if (!appointmentIds.isEmpty()) {
+                current += appointmentRepository.replaceStatus(appointmentIds,
+                        Appointment.STATUS_CANCELLED, Appointment.STATUS_COMPLETED);
+                archived += archivedAppointmentRepository.replaceStatus(appointmentIds,
+                        Appointment.STATUS_CANCELLED, Appointment.STATUS_COMPLETED);
+            }
+            log.info("Prescribed status migration: {} current and {} archived appointments moved", current, archived);
+        } while (batch.size() == batchSize);
+
+        if (current + archived > 0) {
+            doctorRollupReconciler.ifAvailable(reconciler ->
+                    log.info("Prescribed status migration: {} rollup cells repaired", reconciler.reconcile(LocalDate.EPOCH)));
+            appointmentCube.ifAvailable(AppointmentCube::rebuild);
+        }
+        log.info("Prescribed status migration finished: {} current and {} archived appointments moved", current, archived);
+    }
+}
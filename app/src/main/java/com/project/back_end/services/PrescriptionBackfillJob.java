@@ -0,0 +1,119 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentParticipants;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "prescription.backfill.enabled", havingValue = "true")
+public class PrescriptionBackfillJob implements ApplicationRunner {
+
+// 1. **Purpose**:
+//    - One-off migration that fills patientId, doctorId and issuedAt on prescriptions saved before those fields existed,
+//      so they show up in the patient medication history.
+//    - Disabled by default; run once with `prescription.backfill.enabled=true`. It only touches documents without a
+//      patientId, so it can be stopped and restarted safely.
+
+// 2. **Batching**:
+//    - Pages through the collection by _id, reads the participants of the whole batch with one MySQL query
+//      (current and archived appointments) and writes the batch back with one unordered bulk update.
+//    - issuedAt comes from the ObjectId creation time, or the appointment time if the id is not an ObjectId.
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionBackfillJob.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+
+    @Value("${prescription.backfill.batch-size:500}")
+    private int batchSize;
+
+    public PrescriptionBackfillJob(MongoTemplate mongoTemplate,
+                                   AppointmentHistoryRepository appointmentHistoryRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = 0;
+        int skipped = 0;
+        Object lastId = null;
+        List<Document> batch;
+        do {
+            Criteria criteria = Criteria.where("patientId").exists(false);
+            if (lastId != null) {
+                criteria.and("_id").gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id", "appointmentId");
+            batch = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Prescription.class));
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+
+            List<Long> appointmentIds = batch.stream()
+                    .map(document -> document.get("appointmentId"))
+                    .filter(Number.class::isInstance)
+                    .map(id -> ((Number) id).longValue())
+                    .distinct()
+                    .toList();
+            Map<Long, AppointmentParticipants> participants = appointmentIds.isEmpty() ? Map.of()
+                    : appointmentHistoryRepository.findParticipantsByIdIn(appointmentIds).stream()
+                    .collect(Collectors.toMap(AppointmentParticipants::getId, Function.identity()));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+            int queued = 0;
+            for (Document document : batch) {
+                Object appointmentId = document.get("appointmentId");
+                AppointmentParticipants appointment = appointmentId instanceof Number number
+                        ? participants.get(number.longValue()) : null;
+                if (appointment == null) {
+                    skipped++;
+                    continue;
+                }
+                Update update = new Update()
+                        .set("patientId", appointment.getPatientId())
+                        .set("doctorId", appointment.getDoctorId())
+                        .set("issuedAt", issuedAt(document.get("_id"), appointment));
+                bulk.updateOne(Query.query(Criteria.where("_id").is(document.get("_id"))), update);
+                queued++;
+            }
+            if (queued > 0) {
+                updated += bulk.execute().getModifiedCount();
+            }
+            log.info("Prescription backfill: {} updated, {} without a matching appointment", updated, skipped);
+        } while (batch.size() == batchSize);
+
+        log.info("Prescription backfill finished: {} updated, {} without a matching appointment", updated, skipped);
+    }
+
+    private LocalDateTime issuedAt(Object id, AppointmentParticipants appointment) {
+        if (id instanceof ObjectId objectId) {
+            return LocalDateTime.ofInstant(objectId.getDate().toInstant(), ZoneId.systemDefault());
+        }
+        return appointment.getAppointmentTime();
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.models.CacheChange;
+import com.project.back_end.models.Prescription;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+@Component
+public class PrescriptionCache {
+
+// 1. **Purpose**:
+//    - In-process near-cache of prescriptions keyed by appointmentId, in front of MongoDB.
+//    - A prescription never changes once saved (there is no update path), so entries are never invalidated;
+//      they only leave the cache when it is full. That also keeps every application instance correct without coordination.
+//    - Entries are only filled from MongoDB reads: a prescription that is still in the outbox may yet be rejected by the
+//      relay, so it is never cached on save.
+
+// 2. **Negative cache**:
+//    - Remembers "no prescription for this appointment" for `negative-ttl-seconds`, so the doctor dashboard polling
+//      appointments that are not prescribed yet does not hit MongoDB on every refresh.
+//    - A save on this instance clears the entry at once (forgetAbsent); a save on another instance changes the appointment status,
+//      and the change log clears the entry here within a poll interval (evict).
+
+// 3. **Bounds and metrics**:
+//    - The positive cache is bounded by an estimate of its heap footprint (`max-size-mb`), not by entry count,
+//      because doctor notes make entries vary in size.
+//    - Hits, misses, evictions and size are published under cache="prescriptions" and cache="prescriptionsAbsent";
+//      `prescription.cache.hit.ratio` and `prescription.cache.memory` (bytes) are published as gauges.
+
+    private final Cache<Long, Prescription> prescriptions;
+    private final Cache<Long, Boolean> absent;
+
+    public PrescriptionCache(MeterRegistry meterRegistry,
+                             @Value("${prescription.cache.max-size-mb:32}") long maxSizeMb,
+                             @Value("${prescription.cache.negative-ttl-seconds:10}") long negativeTtlSeconds,
+                             @Value("${prescription.cache.negative-max-entries:10000}") long negativeMaxEntries) {
+        this.prescriptions = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((Long appointmentId, Prescription prescription) -> estimateBytes(prescription))
+                .recordStats()
+                .build();
+        this.absent = Caffeine.newBuilder()
+                .maximumSize(negativeMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, prescriptions, "prescriptions");
+        CaffeineCacheMetrics.monitor(meterRegistry, absent, "prescriptionsAbsent");
+        Gauge.builder("prescription.cache.hit.ratio", prescriptions, cache -> cache.stats().hitRate())
+                .description("Share of prescription lookups answered by the near-cache")
+                .register(meterRegistry);
+        Gauge.builder("prescription.cache.memory", prescriptions,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap used by cached prescriptions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+// 4. **Lookups**:
+//    - get returns null on a miss; isAbsent tells whether a miss is already known to have no prescription.
+    public Prescription get(Long appointmentId) {
+        return prescriptions.getIfPresent(appointmentId);
+    }
+
+    public Map<Long, Prescription> getAll(Collection<Long> appointmentIds) {
+        return prescriptions.getAllPresent(appointmentIds);
+    }
+
+    public boolean isAbsent(Long appointmentId) {
+        return absent.getIfPresent(appointmentId) != null;
+    }
+
+// 5. **Fills**:
+//    - Only complete prescriptions may be cached; projected batch results must not be passed to put.
+    public void put(Prescription prescription) {
+        prescriptions.put(prescription.getAppointmentId(), prescription);
+        absent.invalidate(prescription.getAppointmentId());
+    }
+
+    public void putAbsent(Long appointmentId) {
+        absent.put(appointmentId, Boolean.TRUE);
+    }
+
+    public void forgetAbsent(Long appointmentId) {
+        absent.invalidate(appointmentId);
+    }
+
+    // Applies a CacheInvalidationEvent from CacheChangePoller
+    @EventListener
+    public void evict(CacheInvalidationEvent event) {
+        if (event.getKind() == CacheChange.Kind.APPOINTMENT) {
+            absent.invalidate(event.getEntityId());
+        }
+    }
+
+    // Rough retained size: object headers and references, plus one byte per character (compact strings)
+    private static int estimateBytes(Prescription prescription) {
+        int bytes = 160;
+        bytes += length(prescription.getId()) + length(prescription.getPatientName()) + length(prescription.getMedication())
+                + length(prescription.getDosage()) + length(prescription.getDoctorNotes());
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : 48 + value.length();
+    }
+}
@@ -0,0 +1,237 @@
+package com.project.back_end.services;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.models.PrescriptionOutbox;
+import com.project.back_end.repo.PrescriptionOutboxRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Component
+public class PrescriptionOutboxRelay {
+
+// 1. **Purpose**:
+//    - Delivers pending `prescription_outbox` rows to MongoDB in batches.
+//    - Each batch is one unordered bulk write of upserts keyed on appointmentId that only set fields on insert,
+//      so replaying an entry (after a crash, a retry or on a second instance) never duplicates or overwrites a prescription.
+//    - MongoDB is called outside any MySQL transaction; the bookkeeping afterwards is one short transaction.
+
+// 2. **Retries**:
+//    - Failed entries are retried with exponential backoff (base-backoff-ms doubling up to max-backoff-ms).
+//    - After max-attempts they stay in the table with their last error for manual inspection.
+
+// 3. **Several instances**:
+//    - Each batch is claimed in a short transaction: the due rows are locked FOR UPDATE SKIP LOCKED and their next
+//      attempt is pushed `lease-ms` into the future, so every instance delivers different rows. If an instance dies
+//      mid-batch, its rows become due again when the lease runs out and the replay is harmless (see above).
+
+// 4. **Conflicts**:
+//    - An upsert that matches instead of inserting is a replay when the stored document has the entry's _id, and a
+//      conflict when it has another one: a prescription for the appointment already existed, and this entry's
+//      document was discarded. That is how a second prescription for an appointment whose outbox row was already
+//      purged (or that predates the outbox) ends: the entry is rejected with the reason and logged as an error
+//      rather than marked delivered, and reads stop returning it.
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionOutboxRelay.class);
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final PrescriptionOutboxRepository outboxRepository;
+    private final PrescriptionOutboxService outboxService;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${prescription.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${prescription.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${prescription.outbox.base-backoff-ms:1000}")
+    private long baseBackoffMillis;
+
+    @Value("${prescription.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMillis;
+
+    @Value("${prescription.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${prescription.outbox.lease-ms:60000}")
+    private long leaseMillis;
+
+    public PrescriptionOutboxRelay(PrescriptionOutboxRepository outboxRepository,
+                                   PrescriptionOutboxService outboxService,
+                                   MongoTemplate mongoTemplate,
+                                   PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.outboxService = outboxService;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+// 5. **relay Method**:
+//    - Polls for due entries every `poll-interval-ms` and keeps draining while full batches come back.
+//    - Returns the number of entries delivered.
+    @Scheduled(fixedDelayString = "${prescription.outbox.poll-interval-ms:500}")
+    public int relay() {
+        int delivered = 0;
+        int fetched;
+        do {
+            List<PrescriptionOutbox> batch = claim();
+            fetched = batch.size();
+            if (fetched > 0) {
+                delivered += deliver(batch);
+            }
+        } while (fetched == batchSize);
+        return delivered;
+    }
+
+    private List<PrescriptionOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<PrescriptionOutbox> batch = outboxRepository.findDeliverable(now, maxAttempts, Limit.of(batchSize));
+            LocalDateTime leaseUntil = now.plusNanos(leaseMillis * 1_000_000);
+            batch.forEach(entry -> entry.claim(leaseUntil));
+            return batch;
+        });
+    }
+
+    private int deliver(List<PrescriptionOutbox> batch) {
+        List<PrescriptionOutbox> written = new ArrayList<>();
+        Map<PrescriptionOutbox, String> failed = new LinkedHashMap<>();
+        Map<PrescriptionOutbox, String> expectedIds = new HashMap<>();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class);
+        for (PrescriptionOutbox entry : batch) {
+            try {
+                Prescription prescription = outboxService.fromOutbox(entry);
+                bulk.upsert(Query.query(Criteria.where("appointmentId").is(entry.getAppointmentId())),
+                        insertOnly(prescription));
+                written.add(entry);
+                expectedIds.put(entry, prescription.getId());
+            } catch (RuntimeException e) {
+                failed.put(entry, e.getMessage());
+            }
+        }
+
+        // Entries whose upsert did not insert a document: replays, or conflicts with an existing prescription
+        List<PrescriptionOutbox> matched = new ArrayList<>();
+        if (!written.isEmpty()) {
+            Set<Integer> inserted = new HashSet<>();
+            try {
+                bulk.execute().getUpserts().forEach(upsert -> inserted.add(upsert.getIndex()));
+            } catch (BulkOperationException e) {
+                e.getResult().getUpserts().forEach(upsert -> inserted.add(upsert.getIndex()));
+                // Per-operation errors; a duplicate key means another writer inserted a document for the appointment
+                for (BulkWriteError error : e.getErrors()) {
+                    if (error.getCode() != DUPLICATE_KEY) {
+                        failed.put(written.get(error.getIndex()), error.getMessage());
+                    }
+                }
+            } catch (RuntimeException e) {
+                for (PrescriptionOutbox entry : written) {
+                    failed.put(entry, e.getMessage());
+                }
+            }
+            for (int index = 0; index < written.size(); index++) {
+                PrescriptionOutbox entry = written.get(index);
+                if (!inserted.contains(index) && !failed.containsKey(entry)) {
+                    matched.add(entry);
+                }
+            }
+            written.removeAll(failed.keySet());
+        }
+
+        List<PrescriptionOutbox> conflicts = new ArrayList<>();
+        if (!matched.isEmpty()) {
+            try {
+                conflicts.addAll(conflicts(matched, expectedIds));
+            } catch (RuntimeException e) {
+                for (PrescriptionOutbox entry : matched) {
+                    failed.put(entry, e.getMessage());
+                }
+            }
+            written.removeAll(failed.keySet());
+            written.removeAll(conflicts);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!written.isEmpty()) {
+                outboxRepository.markProcessed(written.stream().map(PrescriptionOutbox::getId).toList(), LocalDateTime.now());
+            }
+            failed.forEach((entry, error) -> entry.recordFailure(error, backoffFor(entry.getAttempts())));
+            conflicts.forEach(entry -> entry.reject("A different prescription already exists in MongoDB; this one was not stored", maxAttempts));
+            outboxRepository.saveAll(failed.keySet());
+            outboxRepository.saveAll(conflicts);
+        });
+
+        if (!failed.isEmpty()) {
+            log.warn("Prescription outbox: {} delivered, {} failed and rescheduled", written.size(), failed.size());
+        }
+        if (!conflicts.isEmpty()) {
+            log.error("Prescription outbox: {} prescriptions discarded because the appointment already had one: appointmentIds {}",
+                    conflicts.size(), conflicts.stream().map(PrescriptionOutbox::getAppointmentId).toList());
+        }
+        return written.size();
+    }
+
+    // Entries whose appointment holds a document with another _id; entries queued before ids were assigned count as replays
+    private List<PrescriptionOutbox> conflicts(List<PrescriptionOutbox> matched, Map<PrescriptionOutbox, String> expectedIds) {
+        Query query = Query.query(Criteria.where("appointmentId").in(matched.stream().map(PrescriptionOutbox::getAppointmentId).toList()));
+        query.fields().include("appointmentId");
+        Map<Long, String> storedIds = new HashMap<>();
+        for (Prescription stored : mongoTemplate.find(query, Prescription.class)) {
+            storedIds.put(stored.getAppointmentId(), stored.getId());
+        }
+        List<PrescriptionOutbox> conflicts = new ArrayList<>();
+        for (PrescriptionOutbox entry : matched) {
+            String expected = expectedIds.get(entry);
+            if (expected != null && !expected.equals(storedIds.get(entry.getAppointmentId()))) {
+                conflicts.add(entry);
+            }
+        }
+        return conflicts;
+    }
+
+    private Update insertOnly(Prescription prescription) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(prescription, document);
+        // _id is assigned at enqueue time; entries queued before that have none and MongoDB generates one
+        if (document.get("_id") == null) {
+            document.remove("_id");
+        }
+        Update update = new Update();
+        document.forEach(update::setOnInsert);
+        return update;
+    }
+
+    private long backoffFor(int attempts) {
+        long backoff = baseBackoffMillis << Math.min(attempts, 20);
+        return Math.min(backoff, maxBackoffMillis);
+    }
+
+// 6. **purge Method**:
+//    - Removes delivered entries older than `retention-days` once a day.
+    @Scheduled(cron = "${prescription.outbox.purge-cron:0 15 3 * * *}")
+    public int purge() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return purged == null ? 0 : purged;
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentParticipants;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.models.PrescriptionOutbox;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PrescriptionOutboxRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class PrescriptionOutboxService {
+
+// 1. **Purpose**:
+//    - Write side of the prescription outbox. A saved prescription is recorded in MySQL together with the
+//      appointment status change, in one transaction, and delivered to MongoDB later by PrescriptionOutboxRelay.
+//    - Request latency therefore only includes the MySQL commit, and a MongoDB outage can no longer leave an
+//      appointment marked as prescribed without a prescription.
+
+    private final PrescriptionOutboxRepository outboxRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${prescription.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public PrescriptionOutboxService(PrescriptionOutboxRepository outboxRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     AppointmentService appointmentService,
+                                     ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentService = appointmentService;
+        this.objectMapper = objectMapper;
+    }
+
+// 2. **enqueue Method**:
+//    - Inserts the outbox row first and flushes it, so a duplicate appointmentId fails fast on the unique
+//      constraint (DataIntegrityViolationException) before the status is touched; then updates the status
+//      (and the doctor rollup) through AppointmentService.changeStatus on the row locked by findParticipantsById.
+//    - Both writes commit or roll back together.
+//    - patientId, doctorId and issuedAt are filled from the appointment here, so MongoDB never has to join back to MySQL.
+//    - The MongoDB id is assigned here as well, so the saved object is exactly what the relay will insert (and what a read sees while it is pending).
+//    - Throws IllegalArgumentException if the appointment does not exist.
+    @Transactional
+    public void enqueue(Prescription prescription, int appointmentStatus) {
+        AppointmentParticipants appointment = appointmentRepository.findParticipantsById(prescription.getAppointmentId())
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+        prescription.setId(new ObjectId().toHexString());
+        prescription.setPatientId(appointment.getPatientId());
+        prescription.setDoctorId(appointment.getDoctorId());
+        prescription.setIssuedAt(LocalDateTime.now());
+
+        outboxRepository.saveAndFlush(new PrescriptionOutbox(prescription.getAppointmentId(), toJson(prescription)));
+        appointmentService.changeStatus(appointment, appointmentStatus);
+    }
+
+// 3. **findPending / findPendingByAppointmentIds Methods**:
+//    - Prescriptions that are committed but not yet in MongoDB, so reads right after a save still find them.
+//    - Entries the relay rejected or gave up on (max-attempts used) are not returned.
+    @Transactional(readOnly = true)
+    public Optional<Prescription> findPending(Long appointmentId) {
+        return outboxRepository.findPendingByAppointmentId(appointmentId, maxAttempts).map(this::fromOutbox);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Prescription> findPending(Collection<Long> appointmentIds) {
+        List<Prescription> pending = new ArrayList<>();
+        for (PrescriptionOutbox entry : outboxRepository.findPendingByAppointmentIds(appointmentIds, maxAttempts)) {
+            pending.add(fromOutbox(entry));
+        }
+        return pending;
+    }
+
+    Prescription fromOutbox(PrescriptionOutbox entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), Prescription.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for appointment " + entry.getAppointmentId(), e);
+        }
+    }
+
+    private String toJson(Prescription prescription) {
+        try {
+            return objectMapper.writeValueAsString(prescription);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Prescription cannot be serialized", e);
+        }
+    }
+}
@@ -1,39 +1,59 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.PrescriptionRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Service
 public class PrescriptionService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // Fields a batch lookup may project; appointmentId is always included
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of("patientName", "medication", "dosage", "doctorNotes",
+            "patientId", "doctorId", "issuedAt");
+
+    // Appointment status recorded once a prescription is issued: the visit took place
+    private static final int PRESCRIBED_STATUS = Appointment.STATUS_COMPLETED;
+
     private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionOutboxService prescriptionOutboxService;
+    private final PrescriptionCache prescriptionCache;
 
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepository,
+                               PrescriptionOutboxService prescriptionOutboxService,
+                               PrescriptionCache prescriptionCache) {
         this.prescriptionRepository = prescriptionRepository;
+        this.prescriptionOutboxService = prescriptionOutboxService;
+        this.prescriptionCache = prescriptionCache;
     }
 
-    @Transactional
+    // Not @Transactional itself: the outbox write is its own transaction, so a duplicate rolls it back cleanly
     public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
         Map<String, String> response = new HashMap<>();
 
         try {
-            // Check if prescription already exists for this appointment
-            List<Prescription> existing = prescriptionRepository.findByAppointmentId(prescription.getAppointmentId());
-            if (!existing.isEmpty()) {
-                response.put("message", "Prescription already exists for this appointment");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            prescriptionRepository.save(prescription);
+            // Status change and outbox row commit together in MySQL; PrescriptionOutboxRelay writes to MongoDB
+            prescriptionOutboxService.enqueue(prescription, PRESCRIBED_STATUS);
+            // Not cached until read back from MongoDB; reads meanwhile fall through to the outbox
+            prescriptionCache.forgetAbsent(prescription.getAppointmentId());
             response.put("message", "Prescription saved successfully");
             return ResponseEntity.status(201).body(response);
+        } catch (DataIntegrityViolationException e) {
+            response.put("message", "Prescription already exists for this appointment");
+            return ResponseEntity.badRequest().body(response);
+        } catch (IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             response.put("error", "Failed to save prescription");
             return ResponseEntity.internalServerError().body(response);
@@ -44,21 +64,129 @@ public class PrescriptionService {
     public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
         Map<String, Object> response = new HashMap<>();
 
+        Prescription cached = prescriptionCache.get(appointmentId);
+        if (cached != null) {
+            response.put("prescription", cached);
+            return ResponseEntity.ok(response);
+        }
+        if (prescriptionCache.isAbsent(appointmentId)) {
+            response.put("message", "No prescription found for this appointment");
+            return ResponseEntity.ok(response);
+        }
+
         try {
-            List<Prescription> prescriptions = prescriptionRepository.findByAppointmentId(appointmentId);
-            if (prescriptions.isEmpty()) {
+            Optional<Prescription> prescription = prescriptionRepository.findOneByAppointmentId(appointmentId);
+            prescription.ifPresent(prescriptionCache::put);
+            if (prescription.isEmpty()) {
+                // Saved but not yet relayed to MongoDB
+                prescription = prescriptionOutboxService.findPending(appointmentId);
+            }
+            if (prescription.isEmpty()) {
+                prescriptionCache.putAbsent(appointmentId);
                 response.put("message", "No prescription found for this appointment");
                 return ResponseEntity.ok(response);
             }
 
-            // Assuming one prescription per appointment, get the first one
-            response.put("prescription", prescriptions.get(0));
+            response.put("prescription", prescription.get());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("error", "Failed to retrieve prescription");
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPrescriptions(List<Long> appointmentIds, List<String> fields) {
+        Map<String, Object> response = new HashMap<>();
+
+        String invalid = validateBatch(appointmentIds, fields);
+        if (invalid != null) {
+            response.put("error", invalid);
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            Set<Long> ids = new LinkedHashSet<>(appointmentIds);
+            boolean complete = fields == null || fields.isEmpty();
+            // Cached prescriptions are complete documents, so they can only answer unprojected lookups
+            Map<Long, Prescription> prescriptions = complete
+                    ? new LinkedHashMap<>(prescriptionCache.getAll(ids)) : new LinkedHashMap<>();
+            Set<Long> uncached = new LinkedHashSet<>(ids);
+            uncached.removeAll(prescriptions.keySet());
+            if (!uncached.isEmpty()) {
+                for (Prescription prescription : prescriptionRepository.findByAppointmentIds(uncached, fields)) {
+                    prescriptions.put(prescription.getAppointmentId(), prescription);
+                    if (complete) {
+                        prescriptionCache.put(prescription);
+                    }
+                }
+            }
+            if (prescriptions.size() < ids.size()) {
+                // Saved but not yet relayed to MongoDB
+                ids.removeAll(prescriptions.keySet());
+                for (Prescription prescription : prescriptionOutboxService.findPending(ids)) {
+                    prescriptions.put(prescription.getAppointmentId(), prescription);
+                }
+            }
+            response.put("prescriptions", prescriptions);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("error", "Failed to retrieve prescriptions");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    public ResponseEntity<Map<String, Object>> getPatientPrescriptions(Long patientId, String cursor, int limit) {
+        Map<String, Object> response = new HashMap<>();
+
+        PrescriptionCursor after;
+        try {
+            after = (cursor == null || cursor.isEmpty()) ? null : PrescriptionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Invalid cursor");
+            return ResponseEntity.badRequest().body(response);
+        }
+        int pageSize = historyPageSize(limit);
+
+        try {
+            // Fetch one extra document to know whether another page exists
+            List<Prescription> prescriptions = prescriptionRepository.findPatientHistory(patientId, after, pageSize + 1);
+            if (prescriptions.size() > pageSize) {
+                prescriptions = prescriptions.subList(0, pageSize);
+                response.put("nextCursor", PrescriptionCursor.of(prescriptions.get(pageSize - 1)).encode());
+            }
+            response.put("prescriptions", prescriptions);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("error", "Failed to retrieve prescriptions");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    // Shared with ReactivePrescriptionService; returns the error message, or null when the request is valid
+    static String validateBatch(List<Long> appointmentIds, List<String> fields) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            return "appointmentIds is required";
+        }
+        if (appointmentIds.size() > MAX_BATCH_SIZE) {
+            return "At most " + MAX_BATCH_SIZE + " appointmentIds per request";
+        }
+        if (appointmentIds.stream().anyMatch(Objects::isNull)) {
+            return "appointmentIds must not contain null";
+        }
+        // Set.of(...).containsAll throws on null elements, so blanks and nulls are rejected first
+        if (fields != null && fields.stream().anyMatch(field -> field == null || field.isBlank())) {
+            return "fields must not contain null or blank entries";
+        }
+        if (fields != null && !PROJECTABLE_FIELDS.containsAll(fields)) {
+            return "Unknown field. Allowed fields: " + PROJECTABLE_FIELDS;
+        }
+        return null;
+    }
+
+    static int historyPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+    }
     
  // 1. **Add @Service Annotation**:
 //    - The `@Service` annotation marks this class as a Spring service component, allowing Spring's container to manage it.
@@ -71,20 +199,40 @@ public class PrescriptionService {
 //    - Instruction: Constructor injection is a good practice, ensuring that all necessary dependencies are available at the time of service initialization.
 
 // 3. **savePrescription Method**:
-//    - This method saves a new prescription to the database.
-//    - Before saving, it checks if a prescription already exists for the same appointment (using the appointment ID).
-//    - If a prescription exists, it returns a `400 Bad Request` with a message stating the prescription already exists.
+//    - This method saves a new prescription through the transactional outbox (see `PrescriptionOutboxService`).
+//    - The appointment status change and the outbox row commit together in MySQL; `PrescriptionOutboxRelay` writes the prescription to MongoDB in the background.
+//    - The unique `appointmentId` on the outbox rejects a duplicate whose row still exists, even when two saves race,
+//      and the resulting `DataIntegrityViolationException` becomes a `400 Bad Request` stating the prescription already exists.
+//    - MongoDB is not consulted here, so saves keep working while it is down. A duplicate of a prescription whose outbox
+//      row was purged (or that predates the outbox) is accepted, and the relay rejects it when its upsert conflicts.
+//    - The appointment is marked completed (status 1) once its prescription is issued.
+//    - Appointments prescribed before that were marked 2 (cancelled); PrescribedStatusMigrationJob moves them to 1.
 //    - If no prescription exists, it saves the new prescription and returns a `201 Created` status with a success message.
 //    - Instruction: Handle errors by providing appropriate status codes and messages, ensuring that multiple prescriptions for the same appointment are not saved.
 
 // 4. **getPrescription Method**:
 //    - Retrieves a prescription associated with a specific appointment based on the `appointmentId`.
 //    - If a prescription is found, it returns it within a map wrapped in a `200 OK` status.
+//    - A prescription that is still waiting in the outbox is returned as well, so a read right after a save sees it.
 //    - If there is an error while fetching the prescription, it logs the error and returns a `500 Internal Server Error` status with an error message.
 //    - Instruction: Ensure that this method handles edge cases, such as no prescriptions found for the given appointment, by returning meaningful responses.
 
-// 5. **Exception Handling and Error Responses**:
-//    - Both methods (`savePrescription` and `getPrescription`) contain try-catch blocks to handle exceptions that may occur during database interaction.
+// 5. **Near-cache**:
+//    - Prescriptions are immutable once saved, so PrescriptionCache keeps them by appointmentId without ever invalidating.
+//    - It is filled on the first MongoDB read only; "no prescription yet" is remembered for a few seconds and cleared on save.
+//    - Prescriptions still waiting in the outbox are never cached: the relay has not confirmed them yet.
+
+// 6. **getPrescriptions Method**:
+//    - Resolves the prescriptions of up to `MAX_BATCH_SIZE` appointments with one `$in` query, e.g. for a doctor's whole day view.
+//    - Returns a map of appointmentId -> prescription; appointments without a prescription are simply absent.
+//    - An optional list of fields limits what is loaded from MongoDB and returned.
+
+// 7. **getPatientPrescriptions Method**:
+//    - Returns a patient's medication history newest first, one keyset-paginated page per call, from a single MongoDB query.
+//    - The response carries `nextCursor` while more prescriptions remain.
+
+// 8. **Exception Handling and Error Responses**:
+//    - The methods (`savePrescription`, `getPrescription` and `getPrescriptions`) contain try-catch blocks to handle exceptions that may occur during database interaction.
 //    - If an error occurs, the method logs the error and returns an HTTP `500 Internal Server Error` response with a corresponding error message.
 //    - Instruction: Ensure that all potential exceptions are handled properly, and meaningful responses are returned to the client.
 
@@ -0,0 +1,156 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+@Service
+public class ReactivePrescriptionService {
+
+    private final ReactivePrescriptionRepository reactivePrescriptionRepository;
+    private final PrescriptionOutboxService prescriptionOutboxService;
+    private final PrescriptionCache prescriptionCache;
+
+    public ReactivePrescriptionService(ReactivePrescriptionRepository reactivePrescriptionRepository,
+                                       PrescriptionOutboxService prescriptionOutboxService,
+                                       PrescriptionCache prescriptionCache) {
+        this.reactivePrescriptionRepository = reactivePrescriptionRepository;
+        this.prescriptionOutboxService = prescriptionOutboxService;
+        this.prescriptionCache = prescriptionCache;
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(Long appointmentId) {
+        Prescription cached = prescriptionCache.get(appointmentId);
+        if (cached != null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("prescription", cached);
+            return Mono.just(ResponseEntity.ok(response));
+        }
+        if (prescriptionCache.isAbsent(appointmentId)) {
+            return Mono.just(ResponseEntity.ok(Map.of("message", "No prescription found for this appointment")));
+        }
+
+        return reactivePrescriptionRepository.findOneByAppointmentId(appointmentId)
+                .doOnNext(prescriptionCache::put)
+                // Saved but not yet relayed to MongoDB
+                .switchIfEmpty(Mono.defer(() -> blocking(() -> prescriptionOutboxService.findPending(appointmentId))
+                        .flatMap(Mono::justOrEmpty)))
+                .doOnSuccess(prescription -> {
+                    if (prescription == null) {
+                        prescriptionCache.putAbsent(appointmentId);
+                    }
+                })
+                .map(prescription -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("prescription", prescription);
+                    return ResponseEntity.ok(response);
+                })
+                .defaultIfEmpty(ResponseEntity.ok(Map.of("message", "No prescription found for this appointment")))
+                .onErrorResume(e -> error("Failed to retrieve prescription"));
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescriptions(List<Long> appointmentIds, List<String> fields) {
+        String invalid = PrescriptionService.validateBatch(appointmentIds, fields);
+        if (invalid != null) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", invalid)));
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(appointmentIds);
+        boolean complete = fields == null || fields.isEmpty();
+        // Cached prescriptions are complete documents, so they can only answer unprojected lookups
+        Map<Long, Prescription> cached = complete ? prescriptionCache.getAll(ids) : Map.of();
+        Set<Long> uncached = new LinkedHashSet<>(ids);
+        uncached.removeAll(cached.keySet());
+        Flux<Prescription> found = uncached.isEmpty() ? Flux.empty()
+                : reactivePrescriptionRepository.findByAppointmentIds(uncached, fields)
+                .doOnNext(prescription -> {
+                    if (complete) {
+                        prescriptionCache.put(prescription);
+                    }
+                });
+
+        return found
+                .collectMap(Prescription::getAppointmentId, Function.identity(), () -> new LinkedHashMap<>(cached))
+                .flatMap(prescriptions -> {
+                    if (prescriptions.size() >= ids.size()) {
+                        return Mono.just(prescriptions);
+                    }
+                    // Saved but not yet relayed to MongoDB
+                    Set<Long> missing = new LinkedHashSet<>(ids);
+                    missing.removeAll(prescriptions.keySet());
+                    return blocking(() -> prescriptionOutboxService.findPending(missing)).map(pending -> {
+                        pending.forEach(prescription -> prescriptions.put(prescription.getAppointmentId(), prescription));
+                        return prescriptions;
+                    });
+                })
+                .map(prescriptions -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("prescriptions", prescriptions);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> error("Failed to retrieve prescriptions"));
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> getPatientPrescriptions(Long patientId, String cursor, int limit) {
+        PrescriptionCursor after;
+        try {
+            after = (cursor == null || cursor.isEmpty()) ? null : PrescriptionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor")));
+        }
+        int pageSize = PrescriptionService.historyPageSize(limit);
+
+        // Fetch one extra document to know whether another page exists
+        return reactivePrescriptionRepository.findPatientHistory(patientId, after, pageSize + 1)
+                .collectList()
+                .map(prescriptions -> {
+                    Map<String, Object> response = new HashMap<>();
+                    if (prescriptions.size() > pageSize) {
+                        prescriptions = prescriptions.subList(0, pageSize);
+                        response.put("nextCursor", PrescriptionCursor.of(prescriptions.get(pageSize - 1)).encode());
+                    }
+                    response.put("prescriptions", prescriptions);
+                    return ResponseEntity.ok(response);
+                })
+                .onErrorResume(e -> error("Failed to retrieve prescriptions"));
+    }
+
+    // The outbox lives in MySQL behind blocking JDBC, so it is read on the bounded elastic scheduler, never on a driver thread
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> error(String message) {
+        return Mono.just(ResponseEntity.internalServerError().body(Map.of("error", message)));
+    }
+
+// 1. **Purpose**:
+//    - Non-blocking version of the read side of PrescriptionService, used when `prescription.api.mode=reactive`.
+//    - Queries go through ReactivePrescriptionRepository, so no thread waits while MongoDB answers; a slow MongoDB
+//      no longer ties up the Tomcat workers that serve the MySQL-backed doctor and appointment endpoints.
+//    - Responses, validation rules and status codes are the same as the blocking service.
+
+// 2. **getPrescription / getPrescriptions Methods**:
+//    - Fall back to the pending outbox rows like the blocking methods do; that lookup is JDBC and runs on
+//      `Schedulers.boundedElastic()` only when MongoDB did not already return everything.
+
+// 3. **Near-cache**:
+//    - Uses the same PrescriptionCache as PrescriptionService; a hit answers without touching MongoDB at all.
+
+// 4. **getPatientPrescriptions Method**:
+//    - Same keyset pagination as PrescriptionService.getPatientPrescriptions.
+
+// 5. **Writes**:
+//    - Saving stays in PrescriptionService: it only touches MySQL (the outbox), and MongoDB is written by PrescriptionOutboxRelay off the request path.
+
+
+}
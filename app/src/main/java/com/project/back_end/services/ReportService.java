@@ -0,0 +1,129 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+@Service
+public class ReportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    // Same rows as the GetDailyAppointmentReportByDoctor procedure, over a date range and across hot and archived appointments
+    private static final String DAILY_APPOINTMENT_REPORT_SQL =
+            "SELECT DATE(a.appointment_time) AS report_date, d.name AS doctor_name, a.appointment_time, a.status, " +
+            "p.name AS patient_name, p.phone AS patient_phone " +
+            "FROM (SELECT doctor_id, patient_id, appointment_time, status FROM appointment " +
+            "UNION ALL SELECT doctor_id, patient_id, appointment_time, status FROM appointment_archive) a " +
+            "JOIN doctor d ON a.doctor_id = d.id " +
+            "JOIN patient p ON a.patient_id = p.id " +
+            "WHERE a.appointment_time >= ? AND a.appointment_time < ? " +
+            "ORDER BY report_date, d.name, a.appointment_time";
+
+    private static final String CSV_HEADER = "report_date,doctor_name,appointment_time,status,patient_name,patient_phone";
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ReportService(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeDailyAppointmentReport(LocalDate from, LocalDate to, String format, OutputStream out) throws IOException {
+        if (FORMAT_NDJSON.equals(format)) {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+                streamDailyAppointmentReport(from, to, rs -> writeJson(generator, rs));
+                generator.writeRaw('\n');
+            }
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            streamDailyAppointmentReport(from, to, rs -> writeCsv(writer, rs));
+            writer.flush();
+        }
+    }
+
+    private void streamDailyAppointmentReport(LocalDate from, LocalDate to, RowCallbackHandler handler) {
+        jdbcTemplate.query(DAILY_APPOINTMENT_REPORT_SQL, handler,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    private static void writeJson(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("reportDate", rs.getDate("report_date").toLocalDate().toString());
+            generator.writeStringField("doctorName", rs.getString("doctor_name"));
+            generator.writeStringField("appointmentTime", rs.getTimestamp("appointment_time").toLocalDateTime().toString());
+            generator.writeNumberField("status", rs.getInt("status"));
+            generator.writeStringField("patientName", rs.getString("patient_name"));
+            generator.writeStringField("patientPhone", rs.getString("patient_phone"));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            writer.write(rs.getDate("report_date").toLocalDate().toString());
+            writer.write(',');
+            writer.write(csv(rs.getString("doctor_name")));
+            writer.write(',');
+            writer.write(rs.getTimestamp("appointment_time").toLocalDateTime().toString());
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt("status")));
+            writer.write(',');
+            writer.write(csv(rs.getString("patient_name")));
+            writer.write(',');
+            writer.write(csv(rs.getString("patient_phone")));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180 quoting: only fields containing a separator, quote or line break are quoted
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+// 1. **Purpose**:
+//    - Serves the daily per-doctor appointment report (previously the GetDailyAppointmentReportByDoctor procedure,
+//      run by hand) over any date range, as CSV or NDJSON.
+
+// 2. **Streaming**:
+//    - The query runs through JdbcTemplate with a fetch size, which together with `useCursorFetch` on the datasource URL
+//      makes MySQL hand the rows over through a forward-only server-side cursor, FETCH_SIZE rows at a time.
+//    - Each row is written to the response as soon as it is read, so a year-long report uses the same memory as a single day.
+
+// 3. **writeDailyAppointmentReport Method**:
+//    - `from` and `to` are inclusive dates; the query uses the half-open range [from, to + 1 day) on the raw column.
+//    - MySQL pushes that range into both branches of the union, where idx_appointment_time and
+//      idx_appointment_archive_time answer it with a range scan; the ORDER BY still sorts the rows of the range.
+//    - A client that disconnects surfaces as an UncheckedIOException from the row callback, which stops the query.
+}
@@ -264,6 +264,20 @@ public class Service {
         }
     }
 
-
-
+// 10. **validatePatientAccess Method**
+// This method checks a token that is about to read one patient's records.
+// - A doctor token may read any patient.
+// - A patient token may only read the records of the patient it belongs to; anyone else's gets 403 Forbidden.
+// - An invalid or expired token gets 401 Unauthorized.
+    @Transactional(readOnly = true)
+    public HttpStatus validatePatientAccess(String token, Long patientId) {
+        if (tokenService.validateToken(token, "doctor")) {
+            return HttpStatus.OK;
+        }
+        if (!tokenService.validateToken(token, "patient")) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        Patient patient = patientRepository.findByEmail(tokenService.extractIdentifier(token));
+        return patient != null && patient.getId().equals(patientId) ? HttpStatus.OK : HttpStatus.FORBIDDEN;
+    }
 }
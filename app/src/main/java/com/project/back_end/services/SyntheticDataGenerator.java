@@ -0,0 +1,521 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Prescription;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+// 1. **Purpose**:
+//    - Fills the database with a large, reproducible clinic for performance work on the appointment queries,
+//      pagination, reports and exports: doctors across specialties with hourly availableTimes, patients, years of
+//      appointments with realistic statuses, their MongoDB prescriptions and the doctor_daily_count rollup.
+//    - Disabled by default; run with the `datagen` profile (see application-datagen.properties), e.g.
+//      `java -jar back-end.jar --spring.profiles.active=datagen --datagen.appointments=10000000`.
+//    - The same seed and sizes produce the same rows on an empty schema. Ids continue after the highest existing
+//      ids, so running it on a non-empty schema adds a second clinic instead of failing.
+
+// 2. **Data shape**:
+//    - Doctors work Monday to Saturday in one block of 4-8 hourly slots between 08:00 and 18:00; a doctor's
+//      popularity (0.5-1.5x) decides their share of the appointments.
+//    - Each doctor's appointments are an exact-size random sample of their slots from `past-years` ago until
+//      `future-days` ahead, so no slot is booked twice. A few patients visit often, most rarely.
+//    - Past appointments are completed (85%) or cancelled; future ones are scheduled (93%) or cancelled.
+//    - Completed and cancelled appointments older than appointment.archive.horizon-days are written straight to
+//      appointment_archive, where AppointmentArchiver would have moved them.
+//    - `prescription-share` of the completed appointments get a prescription, issued 30 minutes after the start.
+
+// 3. **Writing**:
+//    - Doctors and patients are inserted first with batched JDBC. Appointments are then generated per doctor on
+//      `threads` workers, in time order, and written in batches of `batch-size` rows. On MySQL
+//      rewriteBatchedStatements turns each batch into multi-row INSERTs.
+//    - Each worker's prescriptions go to MongoDB in unordered bulk inserts of the same size.
+//    - Every doctor's random stream is seeded from the seed and the doctor's index, and id ranges are handed out
+//      before the workers start, so the result does not depend on the number of threads.
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] SPECIALTIES = {"General", "Pediatrics", "Cardiology", "Dermatology", "Orthopedics",
+            "Neurology", "Gynecology", "Psychiatry", "Ophthalmology", "ENT"};
+    // Relative number of doctors per specialty, in the order above
+    private static final int[] SPECIALTY_WEIGHTS = {30, 15, 10, 10, 10, 6, 8, 5, 3, 3};
+    private static final String[] FIRST_NAMES = {"Amelia", "Arjun", "Beatrice", "Carlos", "Deepa", "Elena", "Farid",
+            "Grace", "Hiro", "Isabel", "Jonas", "Kavya", "Liam", "Maya", "Nikhil", "Olivia", "Priya", "Rafael", "Sofia",
+            "Tomas", "Uma", "Victor", "Wen", "Ximena", "Yusuf", "Zara", "Aisha", "Bruno", "Chloe", "Dmitri", "Esther",
+            "Felix", "Gita", "Hannah", "Ivan", "Julia", "Kofi", "Lena", "Mateo", "Nora"};
+    private static final String[] LAST_NAMES = {"Anand", "Brooks", "Chen", "Dubois", "Evans", "Fischer", "Gupta",
+            "Hart", "Iyer", "Jensen", "Kumar", "Lopez", "Moreau", "Nair", "Okafor", "Patel", "Quinn", "Rossi", "Sato",
+            "Turner", "Usman", "Varga", "Walsh", "Xu", "Yamada", "Zimmer", "Abbott", "Bianchi", "Costa", "Diaz",
+            "Eriksen", "Ferreira", "Garcia", "Haddad", "Ibrahim", "Jovanovic", "Kowalski", "Larsen", "Murphy", "Novak"};
+    private static final String[] STREETS = {"Main Street", "Oak Avenue", "Maple Road", "Park Lane", "Cedar Drive",
+            "Elm Street", "Lake View", "Hill Road"};
+    private static final String[][] MEDICATIONS = {
+            {"Amoxicillin 500mg", "1 capsule 3 times a day for 7 days"},
+            {"Ibuprofen 400mg", "1 tablet every 8 hours after meals"},
+            {"Paracetamol 500mg", "1-2 tablets every 6 hours as needed"},
+            {"Cetirizine 10mg", "1 tablet once a day"},
+            {"Metformin 500mg", "1 tablet twice a day with meals"},
+            {"Atorvastatin 20mg", "1 tablet at night"},
+            {"Omeprazole 20mg", "1 capsule before breakfast"},
+            {"Salbutamol inhaler", "2 puffs when needed"},
+            {"Lisinopril 10mg", "1 tablet every morning"},
+            {"Hydrocortisone cream 1%", "Apply thinly twice a day"}};
+    private static final String[] NOTES = {"Take after meals.", "Review in two weeks.", "Stop if a rash appears.",
+            "Drink plenty of water.", "Avoid alcohol during the course.", "Follow up if symptoms persist."};
+
+    private static final int FIRST_HOUR = 8;
+    private static final int LAST_HOUR = 18;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationContext applicationContext;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.doctors:2500}")
+    private int doctorCount;
+
+    @Value("${datagen.patients:1000000}")
+    private int patientCount;
+
+    @Value("${datagen.appointments:10000000}")
+    private long appointmentCount;
+
+    @Value("${datagen.past-years:3}")
+    private int pastYears;
+
+    @Value("${datagen.future-days:60}")
+    private int futureDays;
+
+    @Value("${datagen.prescription-share:0.7}")
+    private double prescriptionShare;
+
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${datagen.threads:4}")
+    private int threads;
+
+    @Value("${datagen.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    @Value("${appointment.archive.horizon-days:365}")
+    private int horizonDays;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  MongoTemplate mongoTemplate,
+                                  ApplicationContext applicationContext) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.applicationContext = applicationContext;
+    }
+
+    // One doctor as generated: the first slot hour, the number of slots and the appointment id range
+    private record DoctorPlan(int index, long id, int firstHour, int slots, long firstAppointmentId, int appointments) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDate firstDay = now.toLocalDate().minusYears(pastYears);
+        LocalDate lastDay = now.toLocalDate().plusDays(futureDays);
+        LocalDateTime archiveCutoff = now.minusDays(horizonDays);
+
+        long doctorBase = maxId("doctor");
+        long patientBase = maxId("patient");
+        long appointmentBase = Math.max(maxId("appointment"), maxId("appointment_archive"));
+        Random random = new Random(seed);
+
+        List<DoctorPlan> doctors = planDoctors(random, doctorBase, appointmentBase, firstDay, lastDay);
+        insertDoctors(doctors);
+        insertPatients(patientBase);
+        log.info("Synthetic data: {} doctors and {} patients written", doctorCount, patientCount);
+
+        AtomicInteger nextDoctor = new AtomicInteger();
+        AtomicLong written = new AtomicLong();
+        AtomicLong prescriptions = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(workers.submit(() -> {
+                    AppointmentWriter writer = new AppointmentWriter(patientBase, now, archiveCutoff);
+                    for (int index = nextDoctor.getAndIncrement(); index < doctors.size(); index = nextDoctor.getAndIncrement()) {
+                        writer.generate(doctors.get(index), firstDay, lastDay);
+                        long total = written.addAndGet(writer.flush());
+                        prescriptions.addAndGet(writer.flushPrescriptions());
+                        if (index % 100 == 99) {
+                            log.info("Synthetic data: {} doctors, {} appointments done", index + 1, total);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long seconds = Math.max(1, (System.nanoTime() - started) / 1_000_000_000L);
+        log.info("Synthetic data finished in {}s: {} appointments ({} rows/s), {} prescriptions", seconds,
+                written.get(), written.get() / seconds, prescriptions.get());
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    private List<DoctorPlan> planDoctors(Random random, long doctorBase, long appointmentBase,
+                                         LocalDate firstDay, LocalDate lastDay) {
+        long workingDays = firstDay.datesUntil(lastDay.plusDays(1)).filter(day -> day.getDayOfWeek() != DayOfWeek.SUNDAY).count();
+        int[] firstHours = new int[doctorCount];
+        int[] slots = new int[doctorCount];
+        double[] popularity = new double[doctorCount];
+        double totalPopularity = 0;
+        for (int i = 0; i < doctorCount; i++) {
+            slots[i] = 4 + random.nextInt(5);
+            firstHours[i] = FIRST_HOUR + random.nextInt(LAST_HOUR - FIRST_HOUR - slots[i] + 1);
+            popularity[i] = 0.5 + random.nextDouble();
+            totalPopularity += popularity[i];
+        }
+
+        List<DoctorPlan> plans = new ArrayList<>(doctorCount);
+        long nextAppointmentId = appointmentBase + 1;
+        long planned = 0;
+        for (int i = 0; i < doctorCount; i++) {
+            long capacity = workingDays * slots[i];
+            int appointments = (int) Math.min(capacity, Math.round(appointmentCount * popularity[i] / totalPopularity));
+            plans.add(new DoctorPlan(i, doctorBase + i + 1, firstHours[i], slots[i], nextAppointmentId, appointments));
+            nextAppointmentId += appointments;
+            planned += appointments;
+        }
+        if (planned < appointmentCount * 99 / 100) {
+            log.warn("Synthetic data: only {} of {} appointments fit into the doctors' slots; add doctors or past-years",
+                    planned, appointmentCount);
+        }
+        return plans;
+    }
+
+    private void insertDoctors(List<DoctorPlan> doctors) {
+        int[] cumulativeWeights = new int[SPECIALTY_WEIGHTS.length];
+        int total = 0;
+        for (int i = 0; i < SPECIALTY_WEIGHTS.length; i++) {
+            total += SPECIALTY_WEIGHTS[i];
+            cumulativeWeights[i] = total;
+        }
+        Random random = new Random(seed + 1);
+        String[] specialties = new String[doctors.size()];
+        for (int i = 0; i < specialties.length; i++) {
+            int pick = random.nextInt(total);
+            int specialty = 0;
+            while (pick >= cumulativeWeights[specialty]) {
+                specialty++;
+            }
+            specialties[i] = SPECIALTIES[specialty];
+        }
+
+        for (int from = 0; from < doctors.size(); from += batchSize) {
+            List<DoctorPlan> batch = doctors.subList(from, Math.min(doctors.size(), from + batchSize));
+            jdbcTemplate.batchUpdate("INSERT INTO doctor (id, name, specialty, email, password, phone) VALUES (?, ?, ?, ?, ?, ?)",
+                    batch, batch.size(), (statement, doctor) -> {
+                        statement.setLong(1, doctor.id());
+                        statement.setString(2, "Dr. " + personName(doctor.index()));
+                        statement.setString(3, specialties[doctor.index()]);
+                        statement.setString(4, "doctor" + doctor.id() + "@clinic.example");
+                        statement.setString(5, "doctor" + doctor.id());
+                        statement.setString(6, String.format("5%09d", doctor.id() % 1_000_000_000L));
+                    });
+            List<long[]> slots = new ArrayList<>();
+            for (DoctorPlan doctor : batch) {
+                for (int hour = doctor.firstHour(); hour < doctor.firstHour() + doctor.slots(); hour++) {
+                    slots.add(new long[]{doctor.id(), hour});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO doctor_available_times (doctor_id, available_times) VALUES (?, ?)",
+                    slots, slots.size(), (statement, slot) -> {
+                        statement.setLong(1, slot[0]);
+                        statement.setString(2, String.format("%02d:00-%02d:00", slot[1], slot[1] + 1));
+                    });
+        }
+    }
+
+    private void insertPatients(long patientBase) {
+        for (int from = 0; from < patientCount; from += batchSize) {
+            int first = from;
+            int size = Math.min(batchSize, patientCount - from);
+            jdbcTemplate.batchUpdate("INSERT INTO patient (id, name, email, password, phone, address) VALUES (?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            int index = first + i;
+                            long id = patientBase + index + 1;
+                            statement.setLong(1, id);
+                            statement.setString(2, patientName(index));
+                            statement.setString(3, "patient" + id + "@mail.example");
+                            statement.setString(4, "patient" + id);
+                            statement.setString(5, String.format("7%09d", id % 1_000_000_000L));
+                            statement.setString(6, (index % 999 + 1) + " " + STREETS[index % STREETS.length] + ", Springfield");
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    });
+        }
+    }
+
+    // Names repeat with a period of 1600, like real names do; the id keeps emails unique
+    private static String personName(int index) {
+        return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[(index / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    private static String patientName(int index) {
+        return personName(index * 7 + 3);
+    }
+
+    // Generates and writes the appointments of one doctor at a time; one instance per worker thread
+    private final class AppointmentWriter {
+
+        private final long patientBase;
+        private final LocalDateTime now;
+        private final LocalDateTime archiveCutoff;
+        private final RowBuffer hot = new RowBuffer(batchSize);
+        private final RowBuffer archived = new RowBuffer(batchSize);
+        private final List<Document> prescriptions = new ArrayList<>(batchSize);
+        private final List<Object[]> dailyCounts = new ArrayList<>();
+        private long written;
+        private long prescribed;
+
+        AppointmentWriter(long patientBase, LocalDateTime now, LocalDateTime archiveCutoff) {
+            this.patientBase = patientBase;
+            this.now = now;
+            this.archiveCutoff = archiveCutoff;
+        }
+
+        void generate(DoctorPlan doctor, LocalDate firstDay, LocalDate lastDay) {
+            Random random = new Random(seed * 1_000_003L + doctor.index());
+            long remainingSlots = firstDay.datesUntil(lastDay.plusDays(1))
+                    .filter(day -> day.getDayOfWeek() != DayOfWeek.SUNDAY).count() * doctor.slots();
+            long remaining = doctor.appointments();
+            long id = doctor.firstAppointmentId();
+            int[] statusCounts = new int[3];
+
+            for (LocalDate day = firstDay; !day.isAfter(lastDay) && remaining > 0; day = day.plusDays(1)) {
+                if (day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                for (int hour = doctor.firstHour(); hour < doctor.firstHour() + doctor.slots(); hour++) {
+                    // Selection sampling: every slot is booked with probability remaining / remainingSlots,
+                    // which yields exactly `appointments` bookings spread uniformly over the range
+                    if (random.nextDouble() * remainingSlots-- >= remaining) {
+                        continue;
+                    }
+                    remaining--;
+                    LocalDateTime time = day.atTime(hour, 0);
+                    int status = status(random, time);
+                    int patientIndex = patientIndex(random);
+                    statusCounts[status]++;
+                    if (status != Appointment.STATUS_SCHEDULED && time.isBefore(archiveCutoff)) {
+                        archived.add(id, doctor.id(), patientBase + patientIndex + 1, time, status);
+                        if (archived.isFull()) {
+                            writeArchived();
+                        }
+                    } else {
+                        hot.add(id, doctor.id(), patientBase + patientIndex + 1, time, status);
+                        if (hot.isFull()) {
+                            writeHot();
+                        }
+                    }
+                    if (status == Appointment.STATUS_COMPLETED && random.nextDouble() < prescriptionShare) {
+                        prescriptions.add(prescription(random, id, doctor.id(), patientBase + patientIndex + 1,
+                                patientName(patientIndex), time));
+                        if (prescriptions.size() >= batchSize) {
+                            flushPrescriptions();
+                        }
+                    }
+                    id++;
+                }
+                for (int status = 0; status < statusCounts.length; status++) {
+                    if (statusCounts[status] > 0) {
+                        dailyCounts.add(new Object[]{doctor.id(), day, status, (long) statusCounts[status]});
+                        statusCounts[status] = 0;
+                    }
+                }
+            }
+        }
+
+        private int status(Random random, LocalDateTime time) {
+            double draw = random.nextDouble();
+            if (time.isBefore(now)) {
+                return draw < 0.85 ? Appointment.STATUS_COMPLETED : Appointment.STATUS_CANCELLED;
+            }
+            return draw < 0.93 ? Appointment.STATUS_SCHEDULED : Appointment.STATUS_CANCELLED;
+        }
+
+        // Skewed towards low indexes: the first 10% of the patients make about a third of the visits
+        private int patientIndex(Random random) {
+            double draw = random.nextDouble();
+            return (int) (patientCount * draw * draw);
+        }
+
+        // Writes what is still buffered and returns the number of appointments written since the last call
+        long flush() {
+            writeHot();
+            writeArchived();
+            if (!dailyCounts.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO doctor_daily_count (doctor_id, appointment_date, status, appointment_count) "
+                        + "VALUES (?, ?, ?, ?)", dailyCounts);
+                dailyCounts.clear();
+            }
+            long count = written;
+            written = 0;
+            return count;
+        }
+
+        long flushPrescriptions() {
+            if (!prescriptions.isEmpty()) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)
+                        .insert(new ArrayList<>(prescriptions))
+                        .execute();
+                prescribed += prescriptions.size();
+                prescriptions.clear();
+            }
+            long count = prescribed;
+            prescribed = 0;
+            return count;
+        }
+
+        private void writeHot() {
+            if (hot.size > 0) {
+                jdbcTemplate.batchUpdate("INSERT INTO appointment (id, doctor_id, patient_id, appointment_time, status, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", hot.setter(now, false));
+                written += hot.size;
+                hot.clear();
+            }
+        }
+
+        private void writeArchived() {
+            if (archived.size > 0) {
+                jdbcTemplate.batchUpdate("INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, status, archived_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", archived.setter(now, true));
+                written += archived.size;
+                archived.clear();
+            }
+        }
+
+        private Document prescription(Random random, long appointmentId, long doctorId, long patientId,
+                                      String patientName, LocalDateTime time) {
+            String[] medication = MEDICATIONS[random.nextInt(MEDICATIONS.length)];
+            // LocalDateTime is stored as a Date in the default time zone, as MongoTemplate does for Prescription
+            Date issuedAt = Date.from(time.plusMinutes(30).atZone(ZoneId.systemDefault()).toInstant());
+            return new Document("patientName", patientName)
+                    .append("appointmentId", appointmentId)
+                    .append("medication", medication[0])
+                    .append("dosage", medication[1])
+                    .append("doctorNotes", NOTES[random.nextInt(NOTES.length)])
+                    .append("patientId", patientId)
+                    .append("doctorId", doctorId)
+                    .append("issuedAt", issuedAt)
+                    .append("_class", Prescription.class.getName());
+        }
+    }
+
+    // Column arrays for one JDBC batch of appointment rows, reused across batches
+    private static final class RowBuffer {
+
+        private final long[] ids;
+        private final long[] doctorIds;
+        private final long[] patientIds;
+        private final LocalDateTime[] times;
+        private final int[] statuses;
+        private int size;
+
+        RowBuffer(int capacity) {
+            ids = new long[capacity];
+            doctorIds = new long[capacity];
+            patientIds = new long[capacity];
+            times = new LocalDateTime[capacity];
+            statuses = new int[capacity];
+        }
+
+        void add(long id, long doctorId, long patientId, LocalDateTime time, int status) {
+            ids[size] = id;
+            doctorIds[size] = doctorId;
+            patientIds[size] = patientId;
+            times[size] = time;
+            statuses[size] = status;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        // The last column is updated_at (the appointment time, or now for future appointments) or archived_at (now)
+        BatchPreparedStatementSetter setter(LocalDateTime now, boolean archived) {
+            Timestamp nowTimestamp = Timestamp.valueOf(now);
+            return new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    Timestamp time = Timestamp.valueOf(times[i]);
+                    statement.setLong(1, ids[i]);
+                    statement.setLong(2, doctorIds[i]);
+                    statement.setLong(3, patientIds[i]);
+                    statement.setTimestamp(4, time);
+                    statement.setInt(5, statuses[i]);
+                    statement.setTimestamp(6, archived || times[i].isAfter(now) ? nowTimestamp : time);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            };
+        }
+    }
+}
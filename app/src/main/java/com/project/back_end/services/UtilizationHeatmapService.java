@@ -0,0 +1,176 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.DTO.DoctorSlot;
+import com.project.back_end.DTO.WeekdayHourCount;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.repo.AppointmentHistoryRepository;
+import com.project.back_end.repo.DoctorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+@Service
+public class UtilizationHeatmapService {
+
+    public static final String SCOPE_DOCTOR = "doctor";
+    public static final String SCOPE_SPECIALTY = "specialty";
+
+    private static final int DAYS = 7;
+    private static final int HOURS = 24;
+
+    private final AppointmentHistoryRepository appointmentHistoryRepository;
+    private final DoctorRepository doctorRepository;
+    private final Cache<String, Map<String, Object>> heatmaps;
+
+    public UtilizationHeatmapService(AppointmentHistoryRepository appointmentHistoryRepository,
+                                     DoctorRepository doctorRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${analytics.heatmap.cache-ttl-seconds:300}") long cacheTtlSeconds,
+                                     @Value("${analytics.heatmap.cache-max-entries:1000}") long cacheMaxEntries) {
+        this.appointmentHistoryRepository = appointmentHistoryRepository;
+        this.doctorRepository = doctorRepository;
+        this.heatmaps = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, heatmaps, "utilizationHeatmaps");
+    }
+
+// 1. **Purpose**:
+//    - Builds a weekday x hour occupancy matrix (booked vs. offered hourly slots) for one doctor or a whole specialty
+//      over a date range, so managers can see where `availableTimes` should be rebalanced.
+
+// 2. **Sources**:
+//    - Booked: one grouped range query (AppointmentHistoryRepository.countByWeekdayAndHour) over the scope's doctors,
+//      counting every appointment that was not cancelled, hot or archived.
+//    - Offered: computed in memory from the scope's availableTimes, which are hourly slots offered every day,
+//      by counting how often each weekday occurs in the range.
+
+// 3. **Caching**:
+//    - Results are cached per (scope, range) for `analytics.heatmap.cache-ttl-seconds`. Hits and misses are published
+//      under cache="utilizationHeatmaps".
+//    - Appointment and doctor changes on any instance drop the affected doctor's heatmaps through the change log
+//      (evict). A specialty heatmap does not record which doctors it covers, so every specialty heatmap goes with them.
+
+// 4. **getHeatmap Method**:
+//    - `scope` is SCOPE_DOCTOR (key = doctor id) or SCOPE_SPECIALTY (key = specialty name, case-insensitive).
+//    - Rows are Monday..Sunday, columns hours 0..23; occupancy is booked / offered, or null where nothing is offered.
+//    - Returns 404 when the doctor or specialty does not exist.
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getHeatmap(String scope, String key, LocalDate from, LocalDate to) {
+        String cacheKey = scope + ':' + key.toLowerCase(Locale.ROOT) + ':' + from + ':' + to;
+        Map<String, Object> cached = heatmaps.getIfPresent(cacheKey);
+        if (cached != null) {
+            return ResponseEntity.ok(cached);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<Long> doctorIds;
+            List<DoctorSlot> slots;
+            if (SCOPE_DOCTOR.equals(scope)) {
+                Long doctorId = Long.valueOf(key);
+                if (!doctorRepository.existsById(doctorId)) {
+                    response.put("error", "Doctor not found");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                }
+                doctorIds = List.of(doctorId);
+                slots = doctorRepository.findSlotsByDoctorId(doctorId);
+            } else {
+                doctorIds = doctorRepository.findIdsBySpecialtyIgnoreCase(key);
+                if (doctorIds.isEmpty()) {
+                    response.put("error", "No doctors found for specialty");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                }
+                slots = doctorRepository.findSlotsBySpecialtyIgnoreCase(key);
+            }
+
+            long[][] booked = new long[DAYS][HOURS];
+            for (WeekdayHourCount count : appointmentHistoryRepository.countByWeekdayAndHour(doctorIds,
+                    from.atStartOfDay(), to.plusDays(1).atStartOfDay(), Appointment.STATUS_CANCELLED)) {
+                // SQL day of week 1 = Sunday .. 7 = Saturday; rows here start on Monday
+                booked[(count.getDayOfWeek() + 5) % DAYS][count.getHour()] += count.getBooked();
+            }
+            long[][] offered = offeredSlots(slots, from, to);
+
+            List<List<Double>> occupancy = new ArrayList<>(DAYS);
+            for (int day = 0; day < DAYS; day++) {
+                List<Double> row = new ArrayList<>(HOURS);
+                for (int hour = 0; hour < HOURS; hour++) {
+                    row.add(offered[day][hour] == 0 ? null : (double) booked[day][hour] / offered[day][hour]);
+                }
+                occupancy.add(row);
+            }
+
+            response.put("scope", scope);
+            response.put(SCOPE_DOCTOR.equals(scope) ? "doctorId" : "specialty", SCOPE_DOCTOR.equals(scope) ? Long.valueOf(key) : key);
+            response.put("doctors", doctorIds.size());
+            response.put("from", from);
+            response.put("to", to);
+            response.put("days", Arrays.asList(DayOfWeek.values()));
+            response.put("booked", booked);
+            response.put("offered", offered);
+            response.put("occupancy", occupancy);
+            Map<String, Object> heatmap = Collections.unmodifiableMap(response);
+            heatmaps.put(cacheKey, heatmap);
+            return ResponseEntity.ok(heatmap);
+        } catch (Exception e) {
+            response.put("error", "Failed to build the heatmap");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    // Offered slots per weekday and hour: each doctor's hour mask times the number of such weekdays in [from, to]
+    private static long[][] offeredSlots(List<DoctorSlot> slots, LocalDate from, LocalDate to) {
+        Map<Long, Integer> hourMasks = new HashMap<>();
+        for (DoctorSlot slot : slots) {
+            hourMasks.merge(slot.getDoctorId(), DoctorSlots.hourMask(List.of(slot.getSlot())), (a, b) -> a | b);
+        }
+        int[] hourTotals = new int[HOURS];
+        for (int mask : hourMasks.values()) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                if ((mask & (1 << hour)) != 0) {
+                    hourTotals[hour]++;
+                }
+            }
+        }
+
+        long[] weekdays = new long[DAYS];
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        for (int i = 0; i < DAYS && i < days; i++) {
+            weekdays[from.plusDays(i).getDayOfWeek().ordinal()] += (days - i + DAYS - 1) / DAYS;
+        }
+
+        long[][] offered = new long[DAYS][HOURS];
+        for (int day = 0; day < DAYS; day++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                offered[day][hour] = weekdays[day] * hourTotals[hour];
+            }
+        }
+        return offered;
+    }
+
+// 5. **evict Method**:
+//    - Applies a CacheInvalidationEvent from CacheChangePoller; patient changes do not affect heatmaps.
+    @EventListener
+    public void evict(CacheInvalidationEvent event) {
+        if (event.getDoctorId() == null) {
+            return;
+        }
+        String doctorPrefix = SCOPE_DOCTOR + ':' + event.getDoctorId() + ':';
+        heatmaps.asMap().keySet().removeIf(key -> key.startsWith(doctorPrefix) || key.startsWith(SCOPE_SPECIALTY + ':'));
+    }
+}
@@ -7,6 +7,7 @@ const token = localStorage.getItem("token");
 let allAppointments = [];
 let filteredAppointments = [];
 let patientId = null;
+let nextCursor = null;
 
 document.addEventListener("DOMContentLoaded", initializePage);
 
@@ -19,16 +20,41 @@ async function initializePage() {
 
     patientId = Number(patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token) || [];
-    allAppointments = appointmentData.filter(app => app.patientId === patientId);
-
-    renderAppointments(allAppointments);
+    await loadNextPage();
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
+// Fetches one more page of the history and appends it; "Load more" stays visible while pages remain
+async function loadNextPage() {
+  const page = await getPatientAppointments(patientId, token, nextCursor);
+  if (!page) throw new Error("Failed to fetch appointments");
+
+  allAppointments = allAppointments.concat(page.appointments.filter(app => app.patientId === patientId));
+  nextCursor = page.nextCursor;
+
+  renderAppointments(allAppointments);
+  renderLoadMore(nextCursor !== null);
+}
+
+function renderLoadMore(visible) {
+  let button = document.getElementById("loadMoreAppointments");
+  if (!button) {
+    button = document.createElement("button");
+    button.id = "loadMoreAppointments";
+    button.className = "today-btn";
+    button.textContent = "Load more";
+    button.addEventListener("click", () => loadNextPage().catch(error => {
+      console.error("Error loading appointments:", error);
+      alert("❌ Failed to load more appointments.");
+    }));
+    document.getElementById("patientTable").after(button);
+  }
+  button.style.display = visible ? "block" : "none";
+}
+
 function renderAppointments(appointments) {
   tableBody.innerHTML = "";
 
@@ -97,6 +123,8 @@ async function handleFilterChange() {
     filteredAppointments = appointments.filter(app => app.patientId === patientId);
 
     renderAppointments(filteredAppointments);
+    // Filtered results come back in one response
+    renderLoadMore(false);
   } catch (error) {
     console.error("Failed to filter appointments:", error);
     alert("❌ An error occurred while filtering appointments.");
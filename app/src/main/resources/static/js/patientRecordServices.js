@@ -9,25 +9,50 @@ const urlParams = new URLSearchParams(window.location.search);
 const patientId = urlParams.get("id");
 const doctorId = urlParams.get("doctorId");
 
+let records = [];
+let nextCursor = null;
+
 document.addEventListener("DOMContentLoaded", initializePage);
 
 async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const appointmentData = await getPatientAppointments(patientId, token, "doctor") || [];
-
-    // Filter by both patientId and doctorId
-    const filteredAppointments = appointmentData.filter(app =>
-      app.doctorId == doctorId);
-    console.log(filteredAppointments)
-    renderAppointments(filteredAppointments);
+    await loadNextPage();
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
+// Fetches one more page of the patient's history and appends this doctor's appointments from it
+async function loadNextPage() {
+  const page = await getPatientAppointments(patientId, token, nextCursor);
+  if (!page) throw new Error("Failed to fetch appointments");
+
+  records = records.concat(page.appointments.filter(app => app.doctorId == doctorId));
+  nextCursor = page.nextCursor;
+
+  renderAppointments(records);
+  renderLoadMore(nextCursor !== null);
+}
+
+function renderLoadMore(visible) {
+  let button = document.getElementById("loadMoreAppointments");
+  if (!button) {
+    button = document.createElement("button");
+    button.id = "loadMoreAppointments";
+    button.className = "today-btn";
+    button.textContent = "Load more";
+    button.addEventListener("click", () => loadNextPage().catch(error => {
+      console.error("Error loading appointments:", error);
+      alert("❌ Failed to load more appointments.");
+    }));
+    document.getElementById("patientTable").after(button);
+  }
+  button.style.display = visible ? "block" : "none";
+}
+
 function renderAppointments(appointments) {
   tableBody.innerHTML = "";
 
@@ -96,15 +96,17 @@ export async function getPatientData(token) {
 }
 
 // the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
-export async function getPatientAppointments(id, token) {
+// The history is cursor-paginated: this returns one page as { appointments, nextCursor }. nextCursor is null on the
+// last page; pass it back in to fetch the page after it.
+export async function getPatientAppointments(id, token, cursor = null) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${token}`);
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+    const response = await fetch(`${PATIENT_API}/${id}/${token}${query}`);
     const data = await response.json();
-    console.log(data.appointments)
-    if (response.ok) {
-      return data.appointments;
+    if (!response.ok) {
+      return null;
     }
-    return null;
+    return { appointments: data.appointments, nextCursor: data.nextCursor || null };
   }
   catch (error) {
     console.error("Error fetching patient details:", error);
@@ -42,3 +42,23 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// Fetches one page of a patient's medication history, newest first.
+// Resolves to { prescriptions, nextCursor }; pass nextCursor back in to load the next page.
+export async function getPatientPrescriptions(patientId, token, cursor = null, limit = 20) {
+  try {
+    const params = new URLSearchParams({ limit });
+    if (cursor) params.set("cursor", cursor);
+    const response = await fetch(`${PRESCRITION_API}/patient/${patientId}/${token}?${params}`);
+
+    const result = await response.json();
+    if (!response.ok) {
+      console.error("Failed to fetch medication history:", result);
+      return { prescriptions: [], nextCursor: null };
+    }
+    return { prescriptions: result.prescriptions, nextCursor: result.nextCursor ?? null };
+  } catch (error) {
+    console.error("Error :: getPatientPrescriptions ::", error);
+    return { prescriptions: [], nextCursor: null };
+  }
+}
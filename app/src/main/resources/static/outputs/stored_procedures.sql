@@ -1,3 +1,11 @@
+-- Appointments are split between the hot `appointment` table and `appointment_archive`
+-- (finished visits older than appointment.archive.horizon-days). Reports read both through this view.
+CREATE OR REPLACE VIEW appointment_history AS
+SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment
+UNION ALL
+SELECT id, doctor_id, patient_id, appointment_time, status FROM appointment_archive;
+
+-- The same report is served for any date range by GET /admin/reports/daily-appointments/{token} (CSV or NDJSON).
 DELIMITER $$
 
 CREATE PROCEDURE GetDailyAppointmentReportByDoctor(
@@ -11,13 +19,14 @@ SELECT
     p.name AS patient_name,
     p.phone AS patient_phone
 FROM
-    appointment a
+    appointment_history a
         JOIN
     doctor d ON a.doctor_id = d.id
         JOIN
     patient p ON a.patient_id = p.id
 WHERE
-    DATE(a.appointment_time) = report_date
+    a.appointment_time >= report_date
+  AND a.appointment_time < report_date + INTERVAL 1 DAY
 ORDER BY
     d.name, a.appointment_time;
 END$$
@@ -26,6 +35,8 @@ DELIMITER ;
 
 CALL GetDailyAppointmentReportByDoctor('2025-04-15');
 
+-- Superseded by GET /admin/reports/top-doctors/{token}?from=&to=, which reads the doctor_daily_count rollup
+-- instead of counting the appointment tables on every call.
 DELIMITER $$
 
 CREATE PROCEDURE GetDoctorWithMostPatientsByMonth(
@@ -33,14 +44,15 @@ CREATE PROCEDURE GetDoctorWithMostPatientsByMonth(
     IN input_year INT
 )
 BEGIN
+DECLARE month_start DATE DEFAULT MAKEDATE(input_year, 1) + INTERVAL (input_month - 1) MONTH;
 SELECT
     doctor_id,
     COUNT(patient_id) AS patients_seen
 FROM
-    appointment
+    appointment_history
 WHERE
-    MONTH(appointment_time) = input_month
-  AND YEAR(appointment_time) = input_year
+    appointment_time >= month_start
+  AND appointment_time < month_start + INTERVAL 1 MONTH
 GROUP BY
     doctor_id
 ORDER BY
@@ -58,13 +70,15 @@ CREATE PROCEDURE GetDoctorWithMostPatientsByYear(
     IN input_year INT
 )
 BEGIN
+DECLARE year_start DATE DEFAULT MAKEDATE(input_year, 1);
 SELECT
     doctor_id,
     COUNT(patient_id) AS patients_seen
 FROM
-    appointment
+    appointment_history
 WHERE
-    YEAR(appointment_time) = input_year
+    appointment_time >= year_start
+  AND appointment_time < year_start + INTERVAL 1 YEAR
 GROUP BY
     doctor_id
 ORDER BY
@@ -74,4 +88,4 @@ END $$
 
 DELIMITER ;
 
-CALL GetDoctorWithMostPatientsByYear(2025);
\ No newline at end of file
+CALL GetDoctorWithMostPatientsByYear(2025);
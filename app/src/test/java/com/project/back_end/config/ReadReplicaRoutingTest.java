@@ -0,0 +1,192 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.TokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Boots the application with two in-memory H2 databases (profiles "sqlbudget" and "replica"). The replica gets the
+// primary's schema but different rows, so the doctor names a read returns tell which database served it.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"sqlbudget", "replica"})
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    private Doctor primaryDoctor;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String ddl : jdbcTemplate.queryForList("SCRIPT NODATA", String.class)) {
+            if (!ddl.startsWith("CREATE USER")) {
+                replica.execute(ddl);
+            }
+        }
+        primaryDoctor = doctor("Dr Primary", "primary@clinic.test");
+        replica.update("INSERT INTO doctor (name, specialty, email, password, phone) VALUES (?, ?, ?, ?, ?)",
+                "Dr Replica", "Cardiology", "replica@clinic.test", "secret1", "1234567890");
+    }
+
+    @AfterEach
+    void deleteAll() {
+        for (String table : List.of("appointment", "doctor_daily_count", "doctor_available_times", "doctor", "patient")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        ReplicaStickiness.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals(List.of("Dr Replica"), doctorNames(true));
+        assertEquals(List.of("Dr Replica"), doctorService.getDoctors().stream().map(Doctor::getName).toList());
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertEquals(List.of("Dr Primary"), doctorNames(false));
+    }
+
+    // The history route never validates its token, so the session has to come from the request itself
+    @Test
+    void patientHistoryAfterBookingIsReadFromThePrimaryForTheSameSession() throws Exception {
+        replica.update("DELETE FROM doctor");
+        Doctor doctor = primaryDoctor;
+        Patient patient = patient("pat@clinic.test");
+        for (String table : List.of("doctor", "doctor_available_times", "patient")) {
+            copyToReplica(table);
+        }
+        String patientToken = tokenService.generateToken(patient.getEmail());
+        String otherToken = tokenService.generateToken(doctor.getEmail());
+
+        mockMvc.perform(post("/appointments/{token}", patientToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"doctor\": {\"id\": " + doctor.getId() + "}, \"patient\": {\"id\": " + patient.getId()
+                                + "}, \"appointmentTime\": \"" + LocalDate.now().plusDays(7).atTime(9, 0) + "\", \"status\": 0}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/patient/{id}/{token}", patient.getId(), patientToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointments.length()").value(1));
+        mockMvc.perform(get("/patient/{id}/{token}", patient.getId(), otherToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.appointments.length()").value(0));
+    }
+
+    @Test
+    void readsLaterInTheWritingRequestUseThePrimary() {
+        List<List<String>> names = new ArrayList<>();
+        request(() -> {
+            names.add(doctorNames(true));
+            doctor("Dr Booked", "booked@clinic.test");
+            names.add(doctorNames(true));
+        });
+
+        assertEquals(List.of("Dr Replica"), names.get(0));
+        assertEquals(List.of("Dr Booked", "Dr Primary"), names.get(1));
+    }
+
+    // What ReplicaStickinessFilter does around a request without a token
+    private void request(Runnable work) {
+        ReplicaStickiness.start();
+        try {
+            work.run();
+        } finally {
+            ReplicaStickiness.clear();
+        }
+    }
+
+    private List<String> doctorNames(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> doctorRepository.findAll().stream()
+                .map(Doctor::getName)
+                .sorted()
+                .toList());
+    }
+
+    private void copyToReplica(String table) {
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM " + table)) {
+            replica.update("INSERT INTO " + table + " (" + String.join(", ", row.keySet()) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(row.size(), "?")) + ")", row.values().toArray());
+        }
+    }
+
+    private Patient patient(String email) {
+        Patient patient = new Patient();
+        patient.setName("Pat One");
+        patient.setEmail(email);
+        patient.setPassword("secret1");
+        patient.setPhone("1234567890");
+        patient.setAddress("1 Main Street");
+        return patientRepository.save(patient);
+    }
+
+    private Doctor doctor(String name, String email) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpeciality("Cardiology");
+        doctor.setEmail(email);
+        doctor.setPassword("secret1");
+        doctor.setPhone("1234567890");
+        doctor.setAvailableTimes(List.of("09:00-10:00"));
+        return doctorRepository.save(doctor);
+    }
+}
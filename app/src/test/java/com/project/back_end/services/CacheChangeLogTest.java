@@ -0,0 +1,160 @@
+package com.project.back_end.services;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two application instances in one JVM (profiles "sqlbudget" and "changelog") sharing one in-memory H2 database, as
+// two nodes behind a load balancer share MySQL. Writes go through one instance; the other must stop serving its cached
+// copies within a few poll intervals.
+class CacheChangeLogTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        writer = instance("create-drop");
+        reader = instance("none");
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    void doctorUpdatedOnOneInstanceIsReloadedOnTheOther() {
+        Doctor doctor = doctor("Dr Ada", "ada@clinic.test");
+        // Apply the creation on the reader first, or its poller may evict the entry right after it is cached
+        drain(reader);
+        assertEquals("Dr Ada", reader.getBean(DoctorRepository.class).findByEmail("ada@clinic.test").getName());
+        assertTrue(secondLevelCache(reader).containsEntity(Doctor.class, doctor.getId()));
+
+        doctor.setName("Dr Ada Lovelace");
+        doctor.setEmail("lovelace@clinic.test");
+        writer.getBean(DoctorService.class).updateDoctor(doctor);
+
+        // Applied synchronously here, so the lookups below cannot overlap a poll still evicting
+        drain(reader);
+        DoctorRepository doctors = reader.getBean(DoctorRepository.class);
+        assertEquals("Dr Ada Lovelace", doctors.findById(doctor.getId()).orElseThrow().getName());
+        assertEquals(doctor.getId(), doctors.findByEmail("lovelace@clinic.test").getId());
+        assertNull(doctors.findByEmail("ada@clinic.test"));
+    }
+
+    @Test
+    void doctorRemovedOnOneInstanceDisappearsOnTheOther() throws InterruptedException {
+        Doctor doctor = doctor("Dr Ben", "ben@clinic.test");
+        DoctorRepository doctors = reader.getBean(DoctorRepository.class);
+        assertTrue(doctors.findById(doctor.getId()).isPresent());
+
+        writer.getBean(DoctorService.class).deleteDoctor(doctor.getId());
+
+        eventually(() -> doctors.findById(doctor.getId()).isEmpty());
+        assertNull(doctors.findByEmail("ben@clinic.test"));
+    }
+
+    @Test
+    void appointmentBookedOnOneInstanceRefreshesHeatmapsOnTheOther() throws InterruptedException {
+        Doctor doctor = doctor("Dr Cy", "cy@clinic.test");
+        UtilizationHeatmapService heatmaps = reader.getBean(UtilizationHeatmapService.class);
+        AppointmentCube cube = reader.getBean(AppointmentCube.class);
+        assertEquals(0, booked(heatmaps, doctor));
+        assertEquals(0L, booked(cube, doctor));
+
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient("pat@clinic.test"));
+        appointment.setAppointmentTime(DAY.atTime(9, 0));
+        assertEquals(1, writer.getBean(AppointmentService.class).bookAppointment(appointment));
+
+        eventually(() -> booked(heatmaps, doctor) == 1);
+        eventually(() -> booked(cube, doctor) == 1L);
+    }
+
+    private static ConfigurableApplicationContext instance(String ddlAuto) {
+        return new SpringApplicationBuilder(BackEndApplication.class)
+                .profiles("sqlbudget", "changelog")
+                .run("--spring.jpa.hibernate.ddl-auto=" + ddlAuto);
+    }
+
+    private static org.hibernate.Cache secondLevelCache(ConfigurableApplicationContext instance) {
+        return instance.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache();
+    }
+
+    private static long booked(UtilizationHeatmapService heatmaps, Doctor doctor) {
+        Map<String, Object> heatmap = heatmaps.getHeatmap(UtilizationHeatmapService.SCOPE_DOCTOR,
+                String.valueOf(doctor.getId()), DAY, DAY).getBody();
+        return Arrays.stream((long[][]) heatmap.get("booked")).flatMapToLong(Arrays::stream).sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long booked(AppointmentCube cube, Doctor doctor) {
+        List<Map<String, Object>> doctors = (List<Map<String, Object>>) cube.utilization(DAY, DAY, doctor.getId())
+                .getBody().get("doctors");
+        return (long) doctors.get(0).get("booked");
+    }
+
+    private static void drain(ConfigurableApplicationContext instance) {
+        CacheChangePoller poller = instance.getBean(CacheChangePoller.class);
+        while (poller.poll() > 0) {
+            // keep polling until nothing is left to apply
+        }
+    }
+
+    private static void eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "change not applied on the other instance within 5 s");
+            Thread.sleep(20);
+        }
+    }
+
+    private static Doctor doctor(String name, String email) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpeciality("Cardiology");
+        doctor.setEmail(email);
+        doctor.setPassword("secret1");
+        doctor.setPhone("1234567890");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+        writer.getBean(DoctorService.class).saveDoctor(doctor);
+        return doctor;
+    }
+
+    private static Patient patient(String email) {
+        Patient patient = new Patient();
+        patient.setName("Pat One");
+        patient.setEmail(email);
+        patient.setPassword("secret1");
+        patient.setPhone("1234567890");
+        patient.setAddress("1 Main Street");
+        writer.getBean(PatientService.class).createPatient(patient);
+        return writer.getBean(PatientRepository.class).findByEmail(email);
+    }
+}
@@ -0,0 +1,175 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.sql.QueryBudget;
+import com.project.back_end.sql.SqlBudgetTest;
+import com.project.back_end.sql.SqlReport;
+import com.project.back_end.sql.SqlStatementRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SqlBudgetTest
+class ServiceQueryBudgetTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void createAppointments() {
+        doctor = doctor("Dr Ada", "ada@clinic.test");
+        doctor("Dr Ben", "ben@clinic.test");
+        doctor("Dr Cy", "cy@clinic.test");
+        patient = patient("Pat One", "one@clinic.test");
+        Patient other = patient("Pat Two", "two@clinic.test");
+        appointment(doctor, patient, DAY.atTime(9, 0));
+        appointment(doctor, other, DAY.atTime(10, 0));
+        appointment(doctor, patient, DAY.plusDays(1).atTime(9, 0));
+    }
+
+    @AfterEach
+    void deleteAll() {
+        for (String table : List.of("appointment", "doctor_daily_count", "doctor_available_times", "doctor", "patient")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        // The rows were deleted behind Hibernate's back; drop what the second-level cache still holds. JPA's
+        // Cache.evictAll() leaves the natural-id regions (email -> id) in place, Hibernate's evictAllRegions() does not
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    @QueryBudget(1)
+    void patientAppointmentsAreOneQuery() {
+        Map<String, Object> body = patientService.getPatientAppointment(patient.getId(), "token").getBody();
+        assertEquals(2, ((List<?>) body.get("appointments")).size());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void patientAppointmentsRequestIsOneQuery() throws Exception {
+        mockMvc.perform(get("/patient/{id}/{token}", patient.getId(), "token"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void patientAppointmentsByConditionAreOneQuery() {
+        patientService.filterByCondition("future", patient.getId());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void doctorsWithTheirTimesAreTwoQueries() {
+        assertEquals(3, doctorService.getDoctors().size());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void doctorAvailabilityIsTwoQueries() {
+        assertEquals(List.of("11"), doctorService.getDoctorAvailability(doctor.getId(), DAY));
+    }
+
+    @Test
+    void repeatedLookupsOnOneConnectionAreReported() {
+        SqlReport report = recorder.measure(() -> transactionTemplate.executeWithoutResult(status -> {
+            for (Long id : List.of(patient.getId(), patient.getId() + 1)) {
+                jdbcTemplate.queryForList("SELECT name FROM patient WHERE id = ?", id);
+            }
+        }));
+        assertEquals(2, report.count());
+        assertEquals(1, report.suspectedNPlusOne().size());
+    }
+
+    @Test
+    void doctorLookupsAfterTheFirstAreServedFromTheSecondLevelCache() {
+        doctorRepository.findByEmail(doctor.getEmail());
+        SqlReport report = recorder.measure(() -> {
+            assertTrue(doctorRepository.existsByEmail(doctor.getEmail()));
+            assertEquals(doctor.getId(), doctorRepository.findByEmail(doctor.getEmail()).getId());
+            assertEquals(3, doctorRepository.findById(doctor.getId()).orElseThrow().getAvailableTimes().size());
+        });
+        assertEquals(0, report.count());
+    }
+
+    private Doctor doctor(String name, String email) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpeciality("Cardiology");
+        doctor.setEmail(email);
+        doctor.setPassword("secret1");
+        doctor.setPhone("1234567890");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"));
+        return doctorRepository.save(doctor);
+    }
+
+    private Patient patient(String name, String email) {
+        Patient patient = new Patient();
+        patient.setName(name);
+        patient.setEmail(email);
+        patient.setPassword("secret1");
+        patient.setPhone("1234567890");
+        patient.setAddress("1 Main Street");
+        return patientRepository.save(patient);
+    }
+
+    private void appointment(Doctor doctor, Patient patient, LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(time);
+        appointmentRepository.save(appointment);
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.sql;
+
+import java.lang.annotation.*;
+
+// Declares how many SQL statements a test method may execute, e.g. @QueryBudget(1) for a single-query read.
+// Only statements issued on the test thread while the test method body runs are counted, so fixtures built in
+// @BeforeEach and background jobs do not count. Checked by QueryBudgetExtension.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    // Maximum number of statements (queries and updates alike)
+    int value();
+
+    // Whether the same SELECT may run more than once on one connection; repeats are reported as suspected N+1 otherwise
+    boolean allowRepeats() default false;
+}
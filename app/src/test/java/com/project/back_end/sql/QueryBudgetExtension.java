@@ -0,0 +1,51 @@
+package com.project.back_end.sql;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Records the statements of every @QueryBudget test method body and fails the test when it goes over budget
+// or repeats a SELECT within one transaction (suspected N+1), listing the statements it executed.
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (context.getRequiredTestMethod().isAnnotationPresent(QueryBudget.class)) {
+            recorder(context).start();
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        SqlReport report = recorder(context).stop();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        String test = context.getRequiredTestMethod().getName();
+        if (report.count() > budget.value()) {
+            throw new AssertionFailedError(String.format("%s executed %d SQL statements, budget is %d:%s",
+                    test, report.count(), budget.value(), report.describe()));
+        }
+        Map<String, Integer> repeats = report.suspectedNPlusOne();
+        if (!budget.allowRepeats() && !repeats.isEmpty()) {
+            throw new AssertionFailedError(String.format("%s repeated SELECTs within one transaction (suspected N+1):%n%s",
+                    test, repeats.entrySet().stream()
+                            .map(repeat -> "  " + repeat.getValue() + "x " + repeat.getKey())
+                            .collect(Collectors.joining(System.lineSeparator()))));
+        }
+    }
+
+    private static SqlStatementRecorder recorder(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(SqlStatementRecorder.class);
+    }
+}
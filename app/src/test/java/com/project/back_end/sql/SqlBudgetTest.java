@@ -0,0 +1,22 @@
+package com.project.back_end.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.*;
+
+// Boots the application against an in-memory H2 database in MySQL mode (profile "sqlbudget") with statement
+// tracking, MockMvc for per-request budgets, and @QueryBudget checks on test methods.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("sqlbudget")
+@Import(SqlStatementTrackingConfiguration.class)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface SqlBudgetTest {
+}
@@ -0,0 +1,70 @@
+package com.project.back_end.sql;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// The statements recorded by SqlStatementRecorder, with the checks QueryBudgetExtension applies to them.
+public class SqlReport {
+
+    private final List<Statement> statements;
+
+    public SqlReport(List<Statement> statements) {
+        this.statements = List.copyOf(statements);
+    }
+
+    public List<Statement> getStatements() {
+        return statements;
+    }
+
+    public int count() {
+        return statements.size();
+    }
+
+    // SELECTs that ran more than once with the same SQL on the same connection: the typical shape of an N+1,
+    // where a lazy or eager association is loaded row by row instead of in the original query
+    public Map<String, Integer> suspectedNPlusOne() {
+        Map<String, Integer> repeats = new LinkedHashMap<>();
+        statements.stream()
+                .filter(Statement::isSelect)
+                .collect(Collectors.groupingBy(statement -> statement.getConnectionId() + "|" + statement.getSql(),
+                        LinkedHashMap::new, Collectors.counting()))
+                .forEach((key, times) -> {
+                    if (times > 1) {
+                        repeats.merge(key.substring(key.indexOf('|') + 1), times.intValue(), Integer::sum);
+                    }
+                });
+        return repeats;
+    }
+
+    public String describe() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            text.append(String.format("%n  %2d. [connection %s] %s", i + 1, statements.get(i).getConnectionId(),
+                    statements.get(i).getSql()));
+        }
+        return text.toString();
+    }
+
+    public static final class Statement {
+
+        private final String connectionId;
+        private final String sql;
+
+        Statement(String connectionId, String sql) {
+            this.connectionId = connectionId;
+            this.sql = sql;
+        }
+
+        public String getConnectionId() {
+            return connectionId;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public boolean isSelect() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+    }
+}
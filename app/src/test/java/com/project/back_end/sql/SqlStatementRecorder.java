@@ -0,0 +1,59 @@
+package com.project.back_end.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// datasource-proxy listener that records the statements executed on the current thread while recording is on.
+// Each statement keeps the id of the connection checkout it ran on, i.e. one transaction (or one auto-commit
+// repository call), so repeated statements can be grouped per transaction.
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<SqlReport.Statement>> recording = new ThreadLocal<>();
+
+    public void start() {
+        recording.set(new ArrayList<>());
+    }
+
+    public SqlReport stop() {
+        List<SqlReport.Statement> statements = recording.get();
+        recording.remove();
+        return new SqlReport(statements == null ? List.of() : statements);
+    }
+
+    // Records only what the action executes, e.g. to put a budget on one call inside a larger test.
+    // Statements still count towards an enclosing recording.
+    public SqlReport measure(Runnable action) {
+        List<SqlReport.Statement> enclosing = recording.get();
+        start();
+        SqlReport report;
+        try {
+            action.run();
+        } finally {
+            report = stop();
+            if (enclosing != null) {
+                enclosing.addAll(report.getStatements());
+                recording.set(enclosing);
+            }
+        }
+        return report;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<SqlReport.Statement> statements = recording.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            statements.add(new SqlReport.Statement(execInfo.getConnectionId(), queryInfo.getQuery()));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.back_end.sql;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+// Registers SqlStatementRecorder as a datasource-proxy listener. The application's DataSource is already wrapped in a
+// datasource-proxy by datasource-micrometer (JDBC tracing), which attaches every QueryExecutionListener bean to it.
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementTrackingConfiguration {
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+}
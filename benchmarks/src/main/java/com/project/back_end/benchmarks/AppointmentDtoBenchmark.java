@@ -0,0 +1,38 @@
+package com.project.back_end.benchmarks;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Building the AppointmentDTO of one history page row, which the JPQL projections of AppointmentHistoryRepository
+// do for every row (the constructor derives date, time-of-day and end time). This replaced entity-to-DTO
+// conversion in PatientService, so it is the per-row mapping cost of the patient dashboards
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentDtoBenchmark {
+
+    @Param({"20", "200"})
+    public int rows;
+
+    private LocalDateTime time;
+
+    @Setup
+    public void setUp() {
+        time = LocalDateTime.of(2030, 1, 7, 9, 0);
+    }
+
+    @Benchmark
+    public void buildPage(Blackhole blackhole) {
+        for (int i = 0; i < rows; i++) {
+            blackhole.consume(new AppointmentDTO((long) i, 12L, "Dr. Doctor 12", 1001L, "Patient 1",
+                    "patient1@mail.example", "5551234567", "1 Main Street, Springfield", time.plusHours(i), 0));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.back_end.benchmarks;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRemovalRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of availability: the AM/PM check used by the doctor filters and the free-slot computation of
+// DoctorService.getDoctorAvailability (run on every booking by Service.validateAppointment), with the two
+// repository reads stubbed
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    // Slots per day and how many of them are already booked
+    @Param({"8"})
+    public int slots;
+
+    @Param({"0", "4"})
+    public int booked;
+
+    private DoctorService doctorService;
+    private Doctor doctor;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        date = LocalDate.of(2030, 1, 7);
+        List<String> availableTimes = Fixtures.slots(new Random(1), slots);
+        doctor = Fixtures.doctors(1).get(0);
+        doctor.setAvailableTimes(availableTimes);
+
+        List<LocalDateTime> bookedTimes = new ArrayList<>();
+        for (int i = 0; i < booked; i++) {
+            bookedTimes.add(date.atTime(Integer.parseInt(availableTimes.get(i * 2 % slots).substring(0, 2)), 0));
+        }
+        DoctorRepository doctors = Fixtures.repository(DoctorRepository.class,
+                Map.of("findSlotsByDoctorId", args -> Fixtures.doctorSlots((Long) args[0], availableTimes)));
+        AppointmentRepository appointments = Fixtures.repository(AppointmentRepository.class,
+                Map.of("findAppointmentTimesByDoctorId", args -> bookedTimes));
+        doctorService = new DoctorService(doctors, appointments,
+                Fixtures.repository(ArchivedAppointmentRepository.class, Map.of()), null, null,
+                Fixtures.repository(AppointmentRemovalRepository.class, Map.of()),
+                Fixtures.cacheChangeLog());
+    }
+
+    @Benchmark
+    public boolean isDoctorAvailableAtTimePm() {
+        return doctorService.isDoctorAvailableAtTime(doctor, "PM");
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailability() {
+        return doctorService.getDoctorAvailability(doctor.getId(), date);
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.back_end.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+public final class BenchmarkRunner {
+
+// 1. Purpose:
+//    - Entry point of benchmarks.jar. Runs the selected benchmarks (all by default; JMH command-line options and
+//      filters are accepted as usual) with the gc profiler, so every result carries the allocation rate
+//      (gc.alloc.rate.norm = bytes per operation) next to the throughput.
+//    - Writes the results as JSON to results/<git commit>.json (-rf and -rff override format and file), so two commits can be
+//      compared with any JMH result viewer or by diffing the score fields.
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        ResultFormatType format = commandLine.getResultFormat().orElse(ResultFormatType.JSON);
+        options.resultFormat(format);
+        if (!commandLine.getResult().hasValue()) {
+            Path result = Path.of("results", commit() + "." + format.name().toLowerCase(Locale.ROOT));
+            Files.createDirectories(result.getParent());
+            options.result(result.toString());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(git.getInputStream().readAllBytes()).trim();
+            if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 && !output.isEmpty()) {
+                return output;
+            }
+        } catch (IOException e) {
+            // not a git checkout, or git is not installed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
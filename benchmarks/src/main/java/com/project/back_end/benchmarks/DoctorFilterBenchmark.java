@@ -0,0 +1,48 @@
+package com.project.back_end.benchmarks;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRemovalRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.DoctorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of Service.filterDoctor: for a time filter it loads the candidate doctors and keeps those with
+// an AM / PM slot (DoctorService.filterDoctorsByTime and the name / specialty + time variants). The load is stubbed
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorFilterBenchmark {
+
+    @Param({"50", "500"})
+    public int doctors;
+
+    @Param({"AM", "PM"})
+    public String amOrPm;
+
+    private DoctorService doctorService;
+
+    @Setup
+    public void setUp() {
+        List<Doctor> all = Fixtures.doctors(doctors);
+        DoctorRepository doctorRepository = Fixtures.repository(DoctorRepository.class, Map.of("findAll", args -> all));
+        doctorService = new DoctorService(doctorRepository,
+                Fixtures.repository(AppointmentRepository.class, Map.of()),
+                Fixtures.repository(ArchivedAppointmentRepository.class, Map.of()), null, null,
+                Fixtures.repository(AppointmentRemovalRepository.class, Map.of()),
+                Fixtures.cacheChangeLog());
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctorsByTime() {
+        return doctorService.filterDoctorsByTime(amOrPm);
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.back_end.benchmarks;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.DoctorSlot;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.CacheChangeRepository;
+import com.project.back_end.services.CacheChangeLog;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+final class Fixtures {
+
+// 1. Purpose:
+//    - Deterministic test data shaped like production data (hourly slots between 08:00 and 18:00, a handful of
+//      specialties, appointments spread over the next weeks) and repository stubs, so benchmarks measure the
+//      application code and not a database or a mocking library.
+
+    static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "General"};
+
+    private Fixtures() {
+    }
+
+    static List<Doctor> doctors(int count) {
+        Random random = new Random(42);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setId((long) i + 1);
+            doctor.setName("Dr. Doctor " + i);
+            doctor.setSpeciality(SPECIALTIES[i % SPECIALTIES.length]);
+            doctor.setEmail("doctor" + i + "@clinic.example");
+            doctor.setPassword("secret" + i);
+            doctor.setPhone(String.format("%010d", 5550000000L + i));
+            doctor.setAvailableTimes(slots(random, 4 + random.nextInt(5)));
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+
+    // `count` distinct hourly slots such as "09:00-10:00", in order
+    static List<String> slots(Random random, int count) {
+        int first = 8 + random.nextInt(Math.max(1, 11 - count));
+        List<String> slots = new ArrayList<>(count);
+        for (int hour = first; hour < first + count; hour++) {
+            slots.add(String.format("%02d:00-%02d:00", hour, hour + 1));
+        }
+        return slots;
+    }
+
+    static List<DoctorSlot> doctorSlots(long doctorId, List<String> slots) {
+        List<DoctorSlot> rows = new ArrayList<>(slots.size());
+        for (String slot : slots) {
+            rows.add(new DoctorSlot() {
+                @Override
+                public Long getDoctorId() {
+                    return doctorId;
+                }
+
+                @Override
+                public String getSlot() {
+                    return slot;
+                }
+            });
+        }
+        return rows;
+    }
+
+    static List<AppointmentDTO> appointments(int count) {
+        Random random = new Random(7);
+        LocalDateTime start = LocalDate.of(2030, 1, 7).atStartOfDay();
+        List<AppointmentDTO> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            appointments.add(appointment(i, start.plusDays(random.nextInt(28)).plusHours(8 + random.nextInt(10)),
+                    random.nextInt(3)));
+        }
+        return appointments;
+    }
+
+    static AppointmentDTO appointment(long id, LocalDateTime time, int status) {
+        return new AppointmentDTO(id, 10 + id % 25, "Dr. Doctor " + id % 25, 1000 + id % 300,
+                "Patient " + id % 300, "patient" + id % 300 + "@mail.example", "5551234567",
+                id % 300 + " Main Street, Springfield", time, status);
+    }
+
+    // Constructed outside Spring, so `cache.change-log.enabled` is never injected and stays false: nothing is recorded
+    static CacheChangeLog cacheChangeLog() {
+        return new CacheChangeLog(repository(CacheChangeRepository.class, Map.of()));
+    }
+
+    // A repository whose listed methods return the given answers; any other call fails, so a benchmark cannot
+    // silently measure a method it did not stub
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.back_end.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Doctor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of the two largest list responses, {"appointments": [...]} and {"doctors": [...]}, with an
+// ObjectMapper configured like Spring Boot's (java.time support, ISO dates). `size` covers a single page of
+// appointments and a full doctor directory
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"20", "200"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> appointments;
+    private Map<String, Object> doctors;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<AppointmentDTO> appointmentList = Fixtures.appointments(size);
+        List<Doctor> doctorList = Fixtures.doctors(size);
+        appointments = Map.of("appointments", appointmentList);
+        doctors = Map.of("doctors", doctorList);
+    }
+
+    @Benchmark
+    public byte[] appointments() throws Exception {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] doctors() throws Exception {
+        return objectMapper.writeValueAsBytes(doctors);
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.back_end.benchmarks;
+
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// JWT issue and parse as done on login and on every authenticated request (TokenService.validateToken parses the
+// token before its repository lookup)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBenchmark {
+
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(
+                Fixtures.repository(AdminRepository.class, Map.of()),
+                Fixtures.repository(PatientRepository.class, Map.of()),
+                Fixtures.repository(DoctorRepository.class, Map.of()));
+        ReflectionTestUtils.setField(tokenService, "secretKey", "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M");
+        token = tokenService.generateToken("patient1234@mail.example");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("patient1234@mail.example");
+    }
+
+    @Benchmark
+    public String extractIdentifier() {
+        return tokenService.extractIdentifier(token);
+    }
+}
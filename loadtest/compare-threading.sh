@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares platform and virtual request threads under 1k-10k concurrent closed-loop clients.
+# Each run boots the application afresh; results go to results/threading/<threads>-<clients>/.
+#   ./compare-threading.sh                      (1000 2500 5000 10000 clients, 60 s each after 15 s warm-up)
+#   CLIENTS="1000 5000" DURATION=30 ./compare-threading.sh --think-ms=200
+# Every client holds a connection on both sides of the loopback: raise the open-file limit first (ulimit -n 65536).
+set -euo pipefail
+
+cd "$(dirname "$0")"
+JAR=target/loadtest.jar
+CLIENTS=${CLIENTS:-"1000 2500 5000 10000"}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-15}
+
+if [ ! -f "$JAR" ]; then
+  echo "Build first: mvn -f ../app install -DskipTests && mvn package" >&2
+  exit 1
+fi
+
+for clients in $CLIENTS; do
+  for threads in platform virtual; do
+    virtual=false
+    [ "$threads" = virtual ] && virtual=true
+    output="results/threading/$threads-$clients"
+    echo "== $clients clients, $threads threads"
+    java -Xmx2g -jar "$JAR" --clients="$clients" --duration="$DURATION" --warmup="$WARMUP" --output="$output" \
+      --app.spring.threads.virtual.enabled="$virtual" "$@" | grep -E '^(endpoint|all) '
+  done
+done
@@ -0,0 +1,194 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.services.TokenService;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+final class ClinicSeeder {
+
+// 1. Purpose:
+//    - Fills the empty load-test database with a clinic shaped like production: doctors with hourly slots between
+//      08:00 and 18:00 across a few specialties, patients, and appointments over the next `days` days that book
+//      about a third of the slots. Half of those appointments already have a prescription (in the in-memory store).
+//    - Signs a token for every doctor and patient with the application's TokenService, so the workload does not
+//      have to log in before each request (logins are a separate, weighted action).
+
+// 2. Hot slots:
+//    - A few free (doctor, hour) slots over the next days are set aside as popular; the workload sends a share of
+//      its bookings there, so concurrent bookings race for the same slot as they do when a schedule opens.
+
+    static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics", "General"};
+    private static final String[] FIRST_NAMES = {"Amelia", "Arjun", "Beatrice", "Carlos", "Deepa", "Elena", "Farid",
+            "Grace", "Hiro", "Isabel", "Jonas", "Kavya", "Liam", "Maya", "Nikhil", "Olivia", "Priya", "Rafael",
+            "Sofia", "Tomas"};
+    private static final String[] LAST_NAMES = {"Anand", "Brooks", "Chen", "Dubois", "Evans", "Fischer", "Gupta",
+            "Hart", "Iyer", "Jensen", "Kumar", "Lopez", "Moreau", "Nair", "Okafor", "Patel", "Quinn", "Rossi",
+            "Sato", "Turner"};
+    private static final double BOOKED_SHARE = 0.33;
+
+    record SeededDoctor(long id, String name, String email, String password, String token, List<Integer> slotHours) {
+    }
+
+    record SeededPatient(long id, String name, String email, String password, String token) {
+    }
+
+    record SeededAppointment(long id, SeededDoctor doctor, SeededPatient patient) {
+    }
+
+    record HotSlot(SeededDoctor doctor, LocalDateTime time) {
+    }
+
+    // prescribed: appointments with a prescription, for reads; unprescribed: consumed by prescription saves
+    record Clinic(List<SeededDoctor> doctors, List<SeededPatient> patients, List<SeededAppointment> prescribed,
+                  Queue<SeededAppointment> unprescribed, List<HotSlot> hotSlots, LocalDate firstDay, int days) {
+    }
+
+    private final ApplicationContext context;
+    private final LoadTestOptions options;
+    private final Random random;
+
+    ClinicSeeder(ApplicationContext context, LoadTestOptions options) {
+        this.context = context;
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    Clinic seed() {
+        TokenService tokenService = context.getBean(TokenService.class);
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+
+        List<Doctor> doctorEntities = new ArrayList<>(options.doctors);
+        List<List<Integer>> doctorHours = new ArrayList<>(options.doctors);
+        for (int i = 0; i < options.doctors; i++) {
+            List<Integer> hours = slotHours();
+            Doctor doctor = new Doctor();
+            doctor.setName("Dr. " + FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length + i) % LAST_NAMES.length]);
+            doctor.setSpeciality(SPECIALTIES[i % SPECIALTIES.length]);
+            doctor.setEmail("doctor" + i + "@clinic.example");
+            doctor.setPassword("doctor-secret" + i);
+            doctor.setPhone(String.format("%010d", 5550000000L + i));
+            doctor.setAvailableTimes(hours.stream().map(hour -> String.format("%02d:00-%02d:00", hour, hour + 1)).toList());
+            doctorEntities.add(doctor);
+            doctorHours.add(hours);
+        }
+        doctorEntities = context.getBean(DoctorRepository.class).saveAll(doctorEntities);
+        List<SeededDoctor> doctors = new ArrayList<>(doctorEntities.size());
+        for (int i = 0; i < doctorEntities.size(); i++) {
+            Doctor doctor = doctorEntities.get(i);
+            doctors.add(new SeededDoctor(doctor.getId(), doctor.getName(), doctor.getEmail(), doctor.getPassword(),
+                    tokenService.generateToken(doctor.getEmail()), doctorHours.get(i)));
+        }
+
+        List<Patient> patientEntities = new ArrayList<>(options.patients);
+        for (int i = 0; i < options.patients; i++) {
+            Patient patient = new Patient();
+            patient.setName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+            patient.setEmail("patient" + i + "@mail.example");
+            patient.setPassword("patient-secret" + i);
+            patient.setPhone(String.format("%010d", 7770000000L + i));
+            patient.setAddress(i + " Main Street, Springfield");
+            patientEntities.add(patient);
+        }
+        patientEntities = context.getBean(PatientRepository.class).saveAll(patientEntities);
+        List<SeededPatient> patients = new ArrayList<>(patientEntities.size());
+        for (Patient patient : patientEntities) {
+            patients.add(new SeededPatient(patient.getId(), patient.getName(), patient.getEmail(), patient.getPassword(),
+                    tokenService.generateToken(patient.getEmail())));
+        }
+
+        // Book about a third of all slots; the rest stay free for the workload, a few of them as hot slots
+        List<Appointment> appointmentEntities = new ArrayList<>();
+        List<SeededPatient> appointmentPatients = new ArrayList<>();
+        List<SeededDoctor> appointmentDoctors = new ArrayList<>();
+        List<HotSlot> freeSlots = new ArrayList<>();
+        for (int i = 0; i < doctors.size(); i++) {
+            for (int day = 0; day < options.days; day++) {
+                for (int hour : doctors.get(i).slotHours()) {
+                    LocalDateTime time = firstDay.plusDays(day).atTime(hour, 0);
+                    if (random.nextDouble() >= BOOKED_SHARE) {
+                        freeSlots.add(new HotSlot(doctors.get(i), time));
+                        continue;
+                    }
+                    int patient = random.nextInt(patients.size());
+                    Appointment appointment = new Appointment();
+                    appointment.setDoctor(doctorEntities.get(i));
+                    appointment.setPatient(patientEntities.get(patient));
+                    appointment.setAppointmentTime(time);
+                    appointment.setStatus(0);
+                    appointmentEntities.add(appointment);
+                    appointmentDoctors.add(doctors.get(i));
+                    appointmentPatients.add(patients.get(patient));
+                }
+            }
+        }
+        appointmentEntities = context.getBean(AppointmentRepository.class).saveAll(appointmentEntities);
+
+        PrescriptionRepository prescriptionRepository = context.getBean(PrescriptionRepository.class);
+        List<SeededAppointment> prescribed = new ArrayList<>();
+        Queue<SeededAppointment> unprescribed = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < appointmentEntities.size(); i++) {
+            Appointment appointment = appointmentEntities.get(i);
+            SeededAppointment seeded = new SeededAppointment(appointment.getId(), appointmentDoctors.get(i), appointmentPatients.get(i));
+            if (random.nextBoolean()) {
+                prescriptionRepository.save(prescription(seeded, appointment.getAppointmentTime()));
+                prescribed.add(seeded);
+            } else {
+                unprescribed.add(seeded);
+            }
+        }
+
+        return new Clinic(doctors, patients, prescribed, unprescribed, hotSlots(freeSlots), firstDay, options.days);
+    }
+
+    private List<Integer> slotHours() {
+        int count = 4 + random.nextInt(5);
+        int first = 8 + random.nextInt(11 - count);
+        List<Integer> hours = new ArrayList<>(count);
+        for (int hour = first; hour < first + count; hour++) {
+            hours.add(hour);
+        }
+        return hours;
+    }
+
+    private List<HotSlot> hotSlots(List<HotSlot> freeSlots) {
+        List<HotSlot> hot = new ArrayList<>(options.hotSlots);
+        Set<Integer> taken = new HashSet<>();
+        while (hot.size() < Math.min(options.hotSlots, freeSlots.size())) {
+            int index = random.nextInt(freeSlots.size());
+            if (taken.add(index)) {
+                hot.add(freeSlots.get(index));
+            }
+        }
+        return hot;
+    }
+
+    private Prescription prescription(SeededAppointment appointment, LocalDateTime issuedAt) {
+        Prescription prescription = new Prescription();
+        prescription.setAppointmentId(appointment.id());
+        prescription.setPatientName(appointment.patient().name());
+        prescription.setPatientId(appointment.patient().id());
+        prescription.setDoctorId(appointment.doctor().id());
+        prescription.setMedication("Amoxicillin 500mg");
+        prescription.setDosage("1 capsule 3 times a day for 7 days");
+        prescription.setDoctorNotes("Take after meals.");
+        prescription.setIssuedAt(issuedAt);
+        return prescription;
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.loadtest.Workload.Step;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+final class ClosedLoopDriver {
+
+// 1. Purpose:
+//    - Replays the workload with a fixed number of concurrent clients: each client performs an action, waits for
+//      every response, pauses for its think time and starts the next action. This is how a server with many
+//      connected users saturates, and it is what the platform-vs-virtual-thread comparison measures: how many
+//      requests per second the server completes, and at what latency, as the client count grows to thousands.
+//    - Each client runs on its own virtual thread, so 10k clients cost the load generator little memory.
+
+// 2. Measurement:
+//    - Latency is measured per request from sending to the last byte. A closed loop slows down with the server
+//      (a waiting client sends nothing), so compare throughput between runs; use OpenLoopDriver for latency
+//      under a fixed arrival rate.
+//    - The requests of a keystroke filter session keep their 120 ms spacing.
+
+    private final LoadTestOptions options;
+    private final Workload workload;
+    private final LoadTestReport report;
+    private final HttpClient client;
+
+    ClosedLoopDriver(LoadTestOptions options, Workload workload, LoadTestReport report) {
+        this.options = options;
+        this.workload = workload;
+        this.report = report;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(options.timeoutSeconds))
+                .build();
+    }
+
+    void run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        List<Thread> clients = new ArrayList<>(options.clients);
+        for (int i = 0; i < options.clients; i++) {
+            Random random = new Random(options.seed + 1 + i);
+            // Spread the first actions over one think time so the clients do not start in lockstep
+            long firstAction = start + (long) (random.nextDouble() * TimeUnit.MILLISECONDS.toNanos(options.thinkMillis));
+            clients.add(Thread.ofVirtual().name("client-" + i).start(() -> runClient(random, firstAction, measureFrom, end)));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        report.setMeasuredSeconds(options.durationSeconds);
+    }
+
+    private void runClient(Random random, long firstAction, long measureFrom, long end) {
+        sleepUntil(firstAction);
+        while (System.nanoTime() < end) {
+            long actionStart = System.nanoTime();
+            for (Step step : workload.next(random)) {
+                sleepUntil(actionStart + step.offsetNanos());
+                long sent = System.nanoTime();
+                int status = 0;
+                Throwable error = null;
+                try {
+                    status = client.send(step.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    error = e;
+                }
+                if (sent >= measureFrom && sent < end) {
+                    report.record(step.endpoint(), status, error, System.nanoTime() - sent);
+                }
+            }
+            sleepUntil(System.nanoTime() + (long) (-Math.log(1 - random.nextDouble())
+                    * TimeUnit.MILLISECONDS.toNanos(options.thinkMillis)));
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.DTO.PrescriptionCursor;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class InMemoryPrescriptionRepository {
+
+// 1. Purpose:
+//    - Stands in for the MongoDB-backed PrescriptionRepository during a load test, so the test needs no MongoDB
+//      server and measures the application rather than a local mongod. Registered as the primary
+//      PrescriptionRepository bean by LoadTestConfiguration.
+//    - Implements the methods the request path uses: findOneByAppointmentId, the custom findByAppointmentIds,
+//      findPatientHistory and countByDoctorIds, plus save/saveAll/findById/count/deleteAll for seeding.
+//      Any other method fails loudly instead of returning a wrong answer.
+
+// 2. Scope:
+//    - New prescriptions are saved through the MySQL outbox; PrescriptionOutboxRelay writes them to MongoDB with
+//      MongoTemplate, not through this repository, so they do not appear here. Reads right after a save are
+//      served by PrescriptionCache and the outbox, as in production. The relay is slowed down by the load test
+//      so its failed MongoDB writes do not add noise.
+
+    private static final Comparator<Prescription> NEWEST_FIRST = Comparator
+            .comparing(Prescription::getIssuedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Prescription::getId, Comparator.reverseOrder());
+
+    private final Map<String, Prescription> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Prescription> byAppointmentId = new ConcurrentHashMap<>();
+
+    private InMemoryPrescriptionRepository() {
+    }
+
+    static PrescriptionRepository create() {
+        InMemoryPrescriptionRepository store = new InMemoryPrescriptionRepository();
+        return (PrescriptionRepository) Proxy.newProxyInstance(PrescriptionRepository.class.getClassLoader(),
+                new Class<?>[]{PrescriptionRepository.class}, (proxy, method, args) -> store.invoke(proxy, method, args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findOneByAppointmentId" -> Optional.ofNullable(byAppointmentId.get((Long) args[0]));
+            case "findByAppointmentIds" -> findByAppointmentIds((Collection<Long>) args[0]);
+            case "findPatientHistory" -> findPatientHistory((Long) args[0], (PrescriptionCursor) args[1], (int) args[2]);
+            case "countByDoctorIds" -> countByDoctorIds((Collection<Long>) args[0], (LocalDateTime) args[1], (LocalDateTime) args[2]);
+            case "save", "insert" -> save((Prescription) args[0]);
+            case "saveAll" -> saveAll((Iterable<Prescription>) args[0]);
+            case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+            case "count" -> (long) byId.size();
+            case "deleteAll" -> {
+                byId.clear();
+                byAppointmentId.clear();
+                yield null;
+            }
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "InMemoryPrescriptionRepository";
+            default -> throw new UnsupportedOperationException("PrescriptionRepository." + method.getName()
+                    + " is not supported by the load test");
+        };
+    }
+
+    private Prescription save(Prescription prescription) {
+        if (prescription.getId() == null) {
+            prescription.setId(UUID.randomUUID().toString());
+        }
+        byId.put(prescription.getId(), prescription);
+        byAppointmentId.put(prescription.getAppointmentId(), prescription);
+        return prescription;
+    }
+
+    private List<Prescription> saveAll(Iterable<Prescription> prescriptions) {
+        List<Prescription> saved = new ArrayList<>();
+        prescriptions.forEach(prescription -> saved.add(save(prescription)));
+        return saved;
+    }
+
+    // Field projection is ignored: returning every field is a superset of what the caller asked for
+    private List<Prescription> findByAppointmentIds(Collection<Long> appointmentIds) {
+        List<Prescription> found = new ArrayList<>();
+        for (Long appointmentId : appointmentIds) {
+            Prescription prescription = byAppointmentId.get(appointmentId);
+            if (prescription != null) {
+                found.add(prescription);
+            }
+        }
+        return found;
+    }
+
+    private List<Prescription> findPatientHistory(Long patientId, PrescriptionCursor after, int limit) {
+        return byId.values().stream()
+                .filter(prescription -> patientId.equals(prescription.getPatientId()))
+                .filter(prescription -> after == null || isAfter(prescription, after))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private static boolean isAfter(Prescription prescription, PrescriptionCursor after) {
+        int byTime = prescription.getIssuedAt().compareTo(after.getIssuedAt());
+        return byTime < 0 || (byTime == 0 && prescription.getId().compareTo(after.getId()) < 0);
+    }
+
+    private Map<Long, Long> countByDoctorIds(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Prescription prescription : byId.values()) {
+            LocalDateTime issuedAt = prescription.getIssuedAt();
+            if (doctorIds.contains(prescription.getDoctorId()) && issuedAt != null
+                    && !issuedAt.isBefore(from) && issuedAt.isBefore(to)) {
+                counts.merge(prescription.getDoctorId(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+}
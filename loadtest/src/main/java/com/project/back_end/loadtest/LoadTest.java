@@ -0,0 +1,71 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.loadtest.ClinicSeeder.Clinic;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public final class LoadTest {
+
+// 1. Purpose:
+//    - Entry point of the load test: boots the application in this JVM on a random port (profile "loadtest":
+//      embedded H2, in-memory prescription store, background jobs off), seeds a clinic, replays the workload with
+//      OpenLoopDriver (or ClosedLoopDriver with --clients) and prints and saves the report. See LoadTestOptions
+//      for the command-line options.
+//    - Client and server share the machine, so compare runs made on the same machine with the same options;
+//      the numbers show relative change, not production capacity.
+
+// 2. Checks after the run:
+//    - Slots booked more than once: bookings check availability and then insert, so contended hot slots are
+//      where a race would let two patients book the same hour.
+
+    private static final String DOUBLE_BOOKED_SLOTS = "SELECT COUNT(*) FROM (SELECT doctor_id, appointment_time "
+            + "FROM appointment WHERE status <> 2 GROUP BY doctor_id, appointment_time HAVING COUNT(*) > 1) booked";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackEndApplication.class, LoadTestConfiguration.class)
+                .profiles("loadtest")
+                .run(options.applicationArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            Clinic clinic = new ClinicSeeder(context, options).seed();
+            String load = options.clients > 0
+                    ? String.format(Locale.ROOT, "Closed-loop run: %d clients, %d ms think time", options.clients, options.thinkMillis)
+                    : String.format(Locale.ROOT, "Open-loop run: %.0f actions/s", options.rate);
+            String threads = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    ? "virtual" : "platform";
+            System.out.printf(Locale.ROOT, "Seeded %d doctors, %d patients, %d appointments; %s on %s request threads "
+                            + "for %ds after %ds of warm-up%n", clinic.doctors().size(), clinic.patients().size(),
+                    clinic.prescribed().size() + clinic.unprescribed().size(), load, threads, options.durationSeconds,
+                    options.warmupSeconds);
+
+            LoadTestReport report = new LoadTestReport(String.format(Locale.ROOT,
+                    "%s, %s request threads, %ds measured after %ds warm-up, mix %s, %d doctors, %d patients, "
+                            + "%d hot slots (share %.2f)", load, threads, options.durationSeconds, options.warmupSeconds,
+                    options.mix, options.doctors, options.patients, options.hotSlots, options.hotShare));
+            Workload workload = new Workload(URI.create("http://localhost:" + port), clinic, options);
+            if (options.clients > 0) {
+                new ClosedLoopDriver(options, workload, report).run();
+            } else {
+                new OpenLoopDriver(options, workload, report).run();
+            }
+
+            Long doubleBooked = context.getBean(JdbcTemplate.class).queryForObject(DOUBLE_BOOKED_SLOTS, Long.class);
+            report.setDoubleBookedSlots(doubleBooked == null ? 0 : doubleBooked);
+            report.print(System.out);
+            Path directory = report.write(options.output);
+            System.out.println("Summary and HdrHistogram percentile files: " + directory.toAbsolutePath());
+        }
+    }
+}
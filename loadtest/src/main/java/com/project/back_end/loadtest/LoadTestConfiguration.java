@@ -0,0 +1,17 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.repo.PrescriptionRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Added to the application by LoadTest: replaces the MongoDB prescription repository with an in-memory one
+@Configuration(proxyBeanMethods = false)
+public class LoadTestConfiguration {
+
+    @Bean
+    @Primary
+    public PrescriptionRepository inMemoryPrescriptionRepository() {
+        return InMemoryPrescriptionRepository.create();
+    }
+}
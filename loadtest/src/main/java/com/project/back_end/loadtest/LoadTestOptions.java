@@ -0,0 +1,96 @@
+package com.project.back_end.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class LoadTestOptions {
+
+// 1. Purpose:
+//    - Command-line options of the load test, given as --name=value. Unknown names are rejected so a typo does not
+//      silently run the default workload.
+
+// 2. Options (defaults in brackets):
+//    - rate [100]: user actions started per second, as a Poisson process. A keystroke filter session is one action
+//      that sends several requests, so the request rate is somewhat higher.
+//    - clients [0]: when set, runs closed-loop instead: that many concurrent clients, each on its own virtual thread,
+//      perform one action after another with think-ms [500] of exponentially distributed pause in between. Used
+//      to compare platform and virtual request threads at 1k-10k concurrent clients (compare-threading.sh).
+//    - warmup [15] / duration [60]: seconds of load before and during measurement.
+//    - mix [login:5,filter:30,availability:25,booking:15,dayview:15,prescription:10]: relative weights of the actions.
+//    - doctors [60] / patients [2000] / days [14]: size of the seeded clinic; bookings target the next `days` days.
+//    - hot-slots [10] / hot-share [0.5]: the share of bookings that go to a few popular (doctor, hour) slots,
+//      which is where concurrent bookings contend.
+//    - max-in-flight [2000]: requests outstanding at once before new ones are shed (reported; the run is then
+//      overloaded on the client side and its numbers are not valid).
+//    - timeout [30]: request timeout in seconds.
+//    - output [results]: directory for the summary and the .hgrm percentile files.
+//    - seed [42]: random seed of the workload and the seeded data.
+//    - app.<property>: passed to the application as --<property>, e.g. --app.server-timing.enabled=false
+//      (defaults in application-loadtest.properties).
+
+    double rate = 100;
+    int clients = 0;
+    int thinkMillis = 500;
+    int warmupSeconds = 15;
+    int durationSeconds = 60;
+    Map<Workload.Action, Integer> mix = parseMix("login:5,filter:30,availability:25,booking:15,dayview:15,prescription:10");
+    int doctors = 60;
+    int patients = 2000;
+    int days = 14;
+    int hotSlots = 10;
+    double hotShare = 0.5;
+    int maxInFlight = 2000;
+    int timeoutSeconds = 30;
+    Path output = Path.of("results");
+    long seed = 42;
+    List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("app.")) {
+                options.applicationArgs.add("--" + name.substring("app.".length()) + "=" + value);
+                continue;
+            }
+            switch (name) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "clients" -> options.clients = Integer.parseInt(value);
+                case "think-ms" -> options.thinkMillis = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "doctors" -> options.doctors = Integer.parseInt(value);
+                case "patients" -> options.patients = Integer.parseInt(value);
+                case "days" -> options.days = Integer.parseInt(value);
+                case "hot-slots" -> options.hotSlots = Integer.parseInt(value);
+                case "hot-share" -> options.hotShare = Double.parseDouble(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "timeout" -> options.timeoutSeconds = Integer.parseInt(value);
+                case "output" -> options.output = Path.of(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.rate <= 0 || options.durationSeconds <= 0) {
+            throw new IllegalArgumentException("--rate and --duration must be positive");
+        }
+        return options;
+    }
+
+    private static Map<Workload.Action, Integer> parseMix(String value) {
+        Map<Workload.Action, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Workload.Action.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,150 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.loadtest.Workload.Endpoint;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LoadTestReport {
+
+// 1. Purpose:
+//    - Collects the outcome and latency of every measured request per endpoint, from any thread, and prints and
+//      saves the summary of the run.
+//    - Latency is measured from the time the open-loop schedule intended the request to start, not from when it
+//      was sent, so time a request spent waiting behind a slow server is included (no coordinated omission).
+
+// 2. Outcomes:
+//    - ok: 2xx. rejected: a 400 on an endpoint where it is an expected answer (slot taken, already prescribed).
+//    - errors: any other status, a timeout or an I/O error. shed: not sent because max-in-flight was reached.
+
+// 3. Output:
+//    - A table with count, throughput, outcomes and p50/p90/p99/p99.9/max in milliseconds per endpoint and overall,
+//      printed and written to <output>/<timestamp>/summary.txt.
+//    - One HdrHistogram percentile distribution per endpoint (<endpoint>.hgrm, values in milliseconds), which can
+//      be plotted with the HdrHistogram plotter or compared between runs.
+
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final class EndpointStats {
+        final Histogram latencyNanos = new ConcurrentHistogram(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder shed = new LongAdder();
+    }
+
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final String description;
+    private double measuredSeconds;
+    private long doubleBookedSlots;
+
+    LoadTestReport(String description) {
+        this.description = description;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    void record(Endpoint endpoint, int status, Throwable error, long latencyNanos) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        endpointStats.latencyNanos.recordValue(latencyNanos);
+        if (error != null) {
+            endpointStats.errors.increment();
+            if (error instanceof HttpTimeoutException || error.getCause() instanceof HttpTimeoutException) {
+                endpointStats.timeouts.increment();
+            }
+        } else if (status >= 200 && status < 300) {
+            endpointStats.ok.increment();
+        } else if (status == 400 && endpoint.mayReject) {
+            endpointStats.rejected.increment();
+        } else {
+            endpointStats.errors.increment();
+        }
+    }
+
+    void shed(Endpoint endpoint) {
+        stats.get(endpoint).shed.increment();
+    }
+
+    void setMeasuredSeconds(double measuredSeconds) {
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    void setDoubleBookedSlots(long doubleBookedSlots) {
+        this.doubleBookedSlots = doubleBookedSlots;
+    }
+
+    void print(PrintStream out) {
+        out.println(description);
+        out.printf(Locale.ROOT, "%-21s %8s %8s %8s %8s %7s %5s %9s %9s %9s %9s %9s%n", "endpoint", "count", "req/s",
+                "ok", "rejected", "errors", "shed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        long[] totals = new long[5];
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            if (endpointStats.latencyNanos.getTotalCount() == 0 && endpointStats.shed.sum() == 0) {
+                continue;
+            }
+            all.add(endpointStats.latencyNanos);
+            long[] outcomes = {endpointStats.ok.sum(), endpointStats.rejected.sum(), endpointStats.errors.sum(),
+                    endpointStats.shed.sum(), endpointStats.timeouts.sum()};
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += outcomes[i];
+            }
+            printRow(out, entry.getKey().label, endpointStats.latencyNanos, outcomes);
+        }
+        printRow(out, "all", all, totals);
+        if (totals[4] > 0) {
+            out.printf(Locale.ROOT, "%d requests timed out (counted as errors)%n", totals[4]);
+        }
+        if (totals[3] > 0) {
+            out.printf(Locale.ROOT, "%d requests were shed at max-in-flight: the client was saturated and the "
+                    + "latencies above understate the server's%n", totals[3]);
+        }
+        out.printf(Locale.ROOT, "Double-booked slots after the run: %d%n", doubleBookedSlots);
+    }
+
+    private void printRow(PrintStream out, String label, Histogram latencyNanos, long[] outcomes) {
+        long count = latencyNanos.getTotalCount();
+        out.printf(Locale.ROOT, "%-21s %8d %8.1f %8d %8d %7d %5d %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, count,
+                measuredSeconds > 0 ? count / measuredSeconds : 0, outcomes[0], outcomes[1], outcomes[2], outcomes[3],
+                millis(latencyNanos.getValueAtPercentile(50)), millis(latencyNanos.getValueAtPercentile(90)),
+                millis(latencyNanos.getValueAtPercentile(99)), millis(latencyNanos.getValueAtPercentile(99.9)),
+                millis(latencyNanos.getMaxValue()));
+    }
+
+    // Writes summary.txt and the .hgrm files to a new directory under `output` and returns it
+    Path write(Path output) throws IOException {
+        Path directory = output.resolve(LocalDateTime.now().format(RUN_NAME));
+        Files.createDirectories(directory);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")), false, "UTF-8")) {
+            print(summary);
+        }
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Histogram latencyNanos = entry.getValue().latencyNanos;
+            if (latencyNanos.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().label + ".hgrm")), false, "UTF-8")) {
+                latencyNanos.outputPercentileDistribution(hgrm, 1_000_000.0);
+            }
+        }
+        return directory;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
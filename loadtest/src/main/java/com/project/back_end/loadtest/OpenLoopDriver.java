@@ -0,0 +1,107 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.loadtest.Workload.Step;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+final class OpenLoopDriver {
+
+// 1. Purpose:
+//    - Replays the workload as an open system: user actions arrive as a Poisson process at the target rate no
+//      matter how fast the server answers, the way independent patients and doctors arrive at a real clinic.
+//      A closed loop (N threads, each waiting for its response) would slow down with the server and hide queueing.
+
+// 2. Scheduling:
+//    - One dispatcher thread draws the next arrival time, asks the workload for the action's requests and keeps
+//      them in a queue ordered by their intended start time; each request is sent with HttpClient.sendAsync when
+//      it is due, so a slow response never delays the next request.
+//    - Latency is recorded from the intended start time, so a dispatcher or connection pool that falls behind
+//      shows up as latency instead of being silently absorbed.
+//    - Requests intended to start during the warm-up are sent but not recorded. After the last arrival the
+//      driver waits for outstanding requests, up to the request timeout.
+//    - At most max-in-flight requests are outstanding; beyond that requests are shed and counted, because the
+//      load generator itself is then the bottleneck.
+
+    private record Scheduled(long intendedNanos, Step step) {
+    }
+
+    private final LoadTestOptions options;
+    private final Workload workload;
+    private final LoadTestReport report;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+
+    OpenLoopDriver(LoadTestOptions options, Workload workload, LoadTestReport report) {
+        this.options = options;
+        this.workload = workload;
+        this.report = report;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(options.timeoutSeconds))
+                .build();
+        this.inFlight = new Semaphore(options.maxInFlight);
+    }
+
+    void run() throws InterruptedException {
+        Random random = new Random(options.seed + 1);
+        double meanInterArrivalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        PriorityQueue<Scheduled> pending = new PriorityQueue<>(Comparator.comparingLong(Scheduled::intendedNanos));
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        long nextArrival = start;
+
+        while (nextArrival < end || !pending.isEmpty()) {
+            long now = System.nanoTime();
+            while (nextArrival < end && nextArrival <= now) {
+                for (Step step : workload.next(random)) {
+                    pending.add(new Scheduled(nextArrival + step.offsetNanos(), step));
+                }
+                nextArrival += (long) (-Math.log(1 - random.nextDouble()) * meanInterArrivalNanos);
+            }
+            while (!pending.isEmpty() && pending.peek().intendedNanos() <= now) {
+                Scheduled scheduled = pending.poll();
+                dispatch(scheduled, scheduled.intendedNanos() >= measureFrom && scheduled.intendedNanos() < end);
+            }
+            long wakeUp = nextArrival < end ? nextArrival : Long.MAX_VALUE;
+            if (!pending.isEmpty()) {
+                wakeUp = Math.min(wakeUp, pending.peek().intendedNanos());
+            }
+            if (wakeUp != Long.MAX_VALUE) {
+                LockSupport.parkNanos(wakeUp - System.nanoTime());
+            }
+        }
+        report.setMeasuredSeconds(options.durationSeconds);
+
+        if (!inFlight.tryAcquire(options.maxInFlight, options.timeoutSeconds + 5L, TimeUnit.SECONDS)) {
+            System.err.println("Some requests were still outstanding when the run ended");
+        }
+    }
+
+    private void dispatch(Scheduled scheduled, boolean measured) {
+        Step step = scheduled.step();
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                report.shed(step.endpoint());
+            }
+            return;
+        }
+        client.sendAsync(step.request(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latencyNanos = System.nanoTime() - scheduled.intendedNanos();
+                    if (measured) {
+                        report.record(step.endpoint(), response == null ? 0 : response.statusCode(), error, latencyNanos);
+                    }
+                    inFlight.release();
+                });
+    }
+}
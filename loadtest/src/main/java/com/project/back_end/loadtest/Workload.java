@@ -0,0 +1,216 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.loadtest.ClinicSeeder.Clinic;
+import com.project.back_end.loadtest.ClinicSeeder.HotSlot;
+import com.project.back_end.loadtest.ClinicSeeder.SeededAppointment;
+import com.project.back_end.loadtest.ClinicSeeder.SeededDoctor;
+import com.project.back_end.loadtest.ClinicSeeder.SeededPatient;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+final class Workload {
+
+// 1. Purpose:
+//    - Turns one user action, drawn from the weighted mix, into the HTTP requests it sends and when it sends them
+//      relative to the action's arrival. Requests are built up front so the driver only has to send them.
+
+// 2. Actions:
+//    - LOGIN: a patient (or, one time in five, a doctor) logs in with email and password.
+//    - FILTER: a patient types a doctor's first or last name into the search box; every keystroke sends a filter
+//      request ~120 ms after the previous one, sometimes with a specialty or AM/PM filter already chosen.
+//    - AVAILABILITY: a patient opens a doctor's free slots for one of the next days.
+//    - BOOKING: a patient books a slot; with probability hot-share one of the hot slots, otherwise any slot of a
+//      random doctor. A 400 (slot taken) is counted as rejected, not as an error.
+//    - DAYVIEW: a doctor opens the appointments of one of their days.
+//    - PRESCRIPTION: a doctor reads the prescription of a seeded appointment, or (one time in three, while
+//      unprescribed appointments last) writes one. A 400 (already prescribed) is counted as rejected.
+
+    enum Action {
+        LOGIN, FILTER, AVAILABILITY, BOOKING, DAYVIEW, PRESCRIPTION
+    }
+
+    enum Endpoint {
+        LOGIN("login", false),
+        DOCTOR_FILTER("doctor.filter", false),
+        AVAILABILITY("doctor.availability", false),
+        BOOKING("appointment.book", true),
+        DAY_VIEW("appointment.dayview", false),
+        PRESCRIPTION_GET("prescription.get", false),
+        PRESCRIPTION_SAVE("prescription.save", true);
+
+        final String label;
+        // Whether a 400 is an expected business rejection rather than an error
+        final boolean mayReject;
+
+        Endpoint(String label, boolean mayReject) {
+            this.label = label;
+            this.mayReject = mayReject;
+        }
+    }
+
+    record Step(Endpoint endpoint, long offsetNanos, HttpRequest request) {
+    }
+
+    private static final long KEYSTROKE_NANOS = TimeUnit.MILLISECONDS.toNanos(120);
+    private static final String[] TIMES = {"AM", "PM"};
+
+    private final URI baseUri;
+    private final Clinic clinic;
+    private final Duration timeout;
+    private final double hotShare;
+    private final Action[] actions;
+    private final int[] cumulativeWeights;
+
+    Workload(URI baseUri, Clinic clinic, LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.clinic = clinic;
+        this.timeout = Duration.ofSeconds(options.timeoutSeconds);
+        this.hotShare = clinic.hotSlots().isEmpty() ? 0 : options.hotShare;
+        this.actions = new Action[options.mix.size()];
+        this.cumulativeWeights = new int[options.mix.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Action, Integer> entry : options.mix.entrySet()) {
+            total += entry.getValue();
+            actions[i] = entry.getKey();
+            cumulativeWeights[i++] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The workload mix has no weight");
+        }
+    }
+
+    List<Step> next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = 0;
+        while (pick >= cumulativeWeights[i]) {
+            i++;
+        }
+        return switch (actions[i]) {
+            case LOGIN -> login(random);
+            case FILTER -> filter(random);
+            case AVAILABILITY -> availability(random);
+            case BOOKING -> booking(random);
+            case DAYVIEW -> dayView(random);
+            case PRESCRIPTION -> prescription(random);
+        };
+    }
+
+    private List<Step> login(Random random) {
+        String path;
+        String email;
+        String password;
+        if (random.nextInt(5) == 0) {
+            SeededDoctor doctor = pick(random, clinic.doctors());
+            path = "/doctor/login";
+            email = doctor.email();
+            password = doctor.password();
+        } else {
+            SeededPatient patient = pick(random, clinic.patients());
+            path = "/patient/login";
+            email = patient.email();
+            password = patient.password();
+        }
+        return List.of(new Step(Endpoint.LOGIN, 0, post(path,
+                "{\"identifier\":\"" + email + "\",\"password\":\"" + password + "\"}")));
+    }
+
+    private List<Step> filter(Random random) {
+        String[] names = pick(random, clinic.doctors()).name().substring("Dr. ".length()).split(" ");
+        String typed = names[random.nextInt(names.length)];
+        String speciality = random.nextInt(4) == 0 ? pick(random, ClinicSeeder.SPECIALTIES) : "null";
+        String time = random.nextInt(4) == 0 ? pick(random, TIMES) : "null";
+        // Users usually find the doctor before finishing the name
+        int keystrokes = 2 + random.nextInt(Math.max(1, typed.length() - 1));
+        List<Step> steps = new ArrayList<>(keystrokes);
+        for (int i = 1; i <= keystrokes; i++) {
+            steps.add(new Step(Endpoint.DOCTOR_FILTER, (i - 1) * KEYSTROKE_NANOS,
+                    get("/doctor/filter/" + encode(typed.substring(0, Math.min(i, typed.length()))) + "/" + time + "/" + speciality)));
+        }
+        return steps;
+    }
+
+    private List<Step> availability(Random random) {
+        SeededDoctor doctor = pick(random, clinic.doctors());
+        return List.of(new Step(Endpoint.AVAILABILITY, 0, get("/doctor/availability/patient/" + doctor.id() + "/"
+                + day(random) + "/" + pick(random, clinic.patients()).token())));
+    }
+
+    private List<Step> booking(Random random) {
+        SeededDoctor doctor;
+        LocalDateTime time;
+        if (random.nextDouble() < hotShare) {
+            HotSlot slot = pick(random, clinic.hotSlots());
+            doctor = slot.doctor();
+            time = slot.time();
+        } else {
+            doctor = pick(random, clinic.doctors());
+            time = day(random).atTime(pick(random, doctor.slotHours()), 0);
+        }
+        SeededPatient patient = pick(random, clinic.patients());
+        return List.of(new Step(Endpoint.BOOKING, 0, post("/appointments/" + patient.token(),
+                "{\"doctor\":{\"id\":" + doctor.id() + "},\"patient\":{\"id\":" + patient.id()
+                        + "},\"appointmentTime\":\"" + time + "\",\"status\":0}")));
+    }
+
+    private List<Step> dayView(Random random) {
+        return List.of(new Step(Endpoint.DAY_VIEW, 0, get("/appointments/" + day(random) + "/null/"
+                + pick(random, clinic.doctors()).token())));
+    }
+
+    private List<Step> prescription(Random random) {
+        if (random.nextInt(3) == 0) {
+            SeededAppointment appointment = clinic.unprescribed().poll();
+            if (appointment != null) {
+                return List.of(new Step(Endpoint.PRESCRIPTION_SAVE, 0, post("/prescription/" + appointment.doctor().token(),
+                        "{\"appointmentId\":" + appointment.id() + ",\"patientName\":\"" + appointment.patient().name()
+                                + "\",\"medication\":\"Ibuprofen 400mg\",\"dosage\":\"1 tablet every 8 hours\","
+                                + "\"doctorNotes\":\"Stop if stomach pain occurs.\"}")));
+            }
+        }
+        if (clinic.prescribed().isEmpty()) {
+            return List.of();
+        }
+        SeededAppointment appointment = pick(random, clinic.prescribed());
+        return List.of(new Step(Endpoint.PRESCRIPTION_GET, 0,
+                get("/prescription/" + appointment.id() + "/" + appointment.doctor().token())));
+    }
+
+    private LocalDate day(Random random) {
+        return clinic.firstDay().plusDays(random.nextInt(clinic.days()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}